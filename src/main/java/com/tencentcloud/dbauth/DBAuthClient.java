@@ -0,0 +1,327 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloud.dbauth.internal.Deadline;
+import com.tencentcloud.dbauth.internal.ErrorCodeMatcher;
+import com.tencentcloud.dbauth.internal.Signer;
+import com.tencentcloud.dbauth.internal.SignerContext;
+import com.tencentcloud.dbauth.internal.Token;
+import com.tencentcloud.dbauth.model.AuthenticationTokenPair;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.TokenSnapshot;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DBAuthClient generates authentication tokens with its own token cache, refresh scheduler and CAM client.
+ * <p>
+ * Unlike the static {@link DBAuthentication} methods, which share one client per class loader, a DBAuthClient
+ * can be closed. Close it when the application stops, e.g. when a web application is undeployed, so its
+ * refresh threads stop calling CAM:
+ * </p>
+ * <pre>
+ * try (DBAuthClient client = new DBAuthClient(DBAuthConfig.load())) {
+ *     String password = client.generateAuthenticationToken(tokenRequest);
+ * }
+ * </pre>
+ */
+public final class DBAuthClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DBAuthClient.class);
+
+    // The time in seconds close() waits for running token requests
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    // The cache, scheduler, CAM transport and listeners of this client
+    private final SignerContext context;
+
+    /**
+     * Constructs a new DBAuthClient with the configuration loaded from the system properties and environment
+     * variables, see {@link DBAuthConfig#load()}.
+     *
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public DBAuthClient() {
+        this(DBAuthConfig.load());
+    }
+
+    /**
+     * Constructs a new DBAuthClient with the given configuration.
+     *
+     * @param config the configuration
+     */
+    public DBAuthClient(DBAuthConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Constructs a new DBAuthClient with the given configuration that shares its tokens with the clients of
+     * other processes through the given store, see {@link SharedTokenStore}.
+     *
+     * @param config      the configuration
+     * @param sharedStore the store shared with the clients of other processes, or null if there is none
+     */
+    public DBAuthClient(DBAuthConfig config, SharedTokenStore sharedStore) {
+        this(new SignerContext(config, SignerContext.newCamTransport(config), sharedStore));
+    }
+
+    /**
+     * Constructs a new DBAuthClient on the given context.
+     *
+     * @param context the context holding the cache, scheduler and CAM transport
+     */
+    DBAuthClient(SignerContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Generates an authentication token using the provided request.
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @return the generated authentication token
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     * @throws IllegalStateException    if the client has been closed
+     */
+    public String generateAuthenticationToken(
+            GenerateAuthenticationTokenRequest tokenRequest) throws TencentCloudSDKException {
+        return generateAuthenticationToken(newSigner(tokenRequest), Deadline.none());
+    }
+
+    /**
+     * Generates an authentication token using the provided request, returning within the given timeout.
+     * <p>
+     * The timeout bounds the HTTP timeouts and retries of the CAM request. If it runs out, the cached token
+     * is returned even if it has expired, or else the fallback token from the local password file.
+     * </p>
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @param timeout      the maximum time to wait
+     * @param unit         the unit of the timeout
+     * @return the generated authentication token
+     * @throws TokenTimeoutException    if the timeout ran out and no cached or fallback token is available
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     * @throws IllegalStateException    if the client has been closed
+     */
+    public String generateAuthenticationToken(
+            GenerateAuthenticationTokenRequest tokenRequest, long timeout, TimeUnit unit)
+            throws TencentCloudSDKException {
+        Signer signer = newSigner(tokenRequest);
+        // Check the cache before creating the deadline, so a cache hit does not allocate
+        String cachedToken = getValidTokenFromCache(signer);
+        if (cachedToken != null) {
+            return cachedToken;
+        }
+        return generateAuthenticationToken(signer, Deadline.after(timeout, unit));
+    }
+
+    /**
+     * Generates an authentication token using the provided request, together with the token it replaced if the
+     * last rotation is within the overlap window, see {@link DBAuthConfig#tokenOverlapWindow()}.
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @return the current and the previous authentication token
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     * @throws IllegalStateException    if the client has been closed
+     */
+    public AuthenticationTokenPair generateAuthenticationTokenPair(
+            GenerateAuthenticationTokenRequest tokenRequest) throws TencentCloudSDKException {
+        return generateAuthenticationTokenPair(newSigner(tokenRequest), Deadline.none());
+    }
+
+    /**
+     * Generates an authentication token using the provided request, returning within the given timeout,
+     * together with the token it replaced if the last rotation is within the overlap window.
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @param timeout      the maximum time to wait
+     * @param unit         the unit of the timeout
+     * @return the current and the previous authentication token
+     * @throws TokenTimeoutException    if the timeout ran out and no cached or fallback token is available
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     * @throws IllegalStateException    if the client has been closed
+     */
+    public AuthenticationTokenPair generateAuthenticationTokenPair(
+            GenerateAuthenticationTokenRequest tokenRequest, long timeout, TimeUnit unit)
+            throws TencentCloudSDKException {
+        return generateAuthenticationTokenPair(newSigner(tokenRequest), Deadline.after(timeout, unit));
+    }
+
+    /**
+     * Returns the token to retry with after the database rejected a token around a rotation.
+     * <p>
+     * Within the overlap window after a rotation, this returns the previous token if the current one was
+     * rejected, e.g. because the database has not applied the new password yet, and the current token if the
+     * previous one was rejected. The retry needs no CAM request and is counted in
+     * {@link TokenSnapshot#rotationRetries()}.
+     * </p>
+     *
+     * @param tokenRequest the request the rejected token was generated for
+     * @param failedToken  the token the database rejected
+     * @return the token to retry with, or null if there is none
+     * @throws IllegalStateException if the client has been closed
+     */
+    public String getRotationRetryToken(GenerateAuthenticationTokenRequest tokenRequest, String failedToken) {
+        checkOpen();
+        Token retryToken = context.getSigner(tokenRequest).getRotationRetryToken(failedToken);
+        return retryToken != null ? retryToken.getAuthToken() : null;
+    }
+
+    private Signer newSigner(GenerateAuthenticationTokenRequest tokenRequest) {
+        checkOpen();
+        // Reuse the Signer of an equal request, so a cache hit does not allocate
+        Signer signer = context.getSigner(tokenRequest);
+        signer.recordAccess();
+        return signer;
+    }
+
+    private void checkOpen() {
+        if (context.isClosed()) {
+            throw new IllegalStateException("The DBAuthClient has been closed.");
+        }
+    }
+
+    private AuthenticationTokenPair generateAuthenticationTokenPair(Signer signer, Deadline deadline)
+            throws TencentCloudSDKException {
+        String current = generateAuthenticationToken(signer, deadline);
+        Token previous = signer.getPreviousAuthTokenFromCache();
+        if (previous == null || previous.getAuthToken().equals(current)) {
+            return AuthenticationTokenPair.builder().current(current).build();
+        }
+        return AuthenticationTokenPair.builder()
+                .current(current)
+                .previous(previous.getAuthToken())
+                .previousExpires(previous.getExpires())
+                .build();
+    }
+
+    private static String getValidTokenFromCache(Signer signer) {
+        Token cachedToken = signer.getAuthTokenFromCache();
+        if (cachedToken != null && cachedToken.getExpires() > System.currentTimeMillis()) {
+            return cachedToken.getAuthToken();
+        }
+        return null;
+    }
+
+    private String generateAuthenticationToken(Signer signer, Deadline deadline) throws TencentCloudSDKException {
+        // Get the authentication token from the cache.
+        Token cachedToken = signer.getAuthTokenFromCache();
+        if (cachedToken != null) {
+            if (cachedToken.getExpires() > System.currentTimeMillis()) {
+                // If the token has not expired, return the token.
+                return cachedToken.getAuthToken();
+            }
+        }
+        try {
+            signer.buildAuthToken(deadline);
+            return signer.getAuthTokenFromCache().getAuthToken();
+        } catch (TokenTimeoutException e) {
+            // The Signer logs the failures of each key, rate-limited, so a failing key does not flood the log
+            log.debug("Timed out while generating authentication token");
+            if (cachedToken != null) {
+                return cachedToken.getAuthToken();
+            }
+            Token fallbackToken = signer.getFallbackToken();
+            if (fallbackToken != null) {
+                log.info("Using the fallback token");
+                return fallbackToken.getAuthToken();
+            }
+            throw e;
+        } catch (TencentCloudSDKException e) {
+            log.debug("Error occurred while generating authentication token", e);
+            if (cachedToken != null) {
+                if (ErrorCodeMatcher.isUserNotificationRequired(e.getErrorCode())) {
+                    throw e;
+                } else {
+                    return cachedToken.getAuthToken();
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Registers a listener that is notified when the token of any key is rotated, is about to expire,
+     * or is revoked. This lets connection pools update credentials proactively instead of finding out
+     * through failed authentications.
+     *
+     * @param listener the listener to register
+     */
+    public void addTokenListener(TokenListener listener) {
+        context.getEventPublisher().addListener(listener);
+    }
+
+    /**
+     * Unregisters a token listener.
+     *
+     * @param listener the listener to unregister
+     */
+    public void removeTokenListener(TokenListener listener) {
+        context.getEventPublisher().removeListener(listener);
+    }
+
+    /**
+     * Returns the number of background token refreshes waiting for a free worker, per region.
+     * A growing queue depth for a region indicates that CAM is slow or unreachable in that region.
+     *
+     * @return the queue depth of each region
+     */
+    public Map<String, Integer> getRefreshQueueDepths() {
+        return context.getTimerManager().getQueueDepths();
+    }
+
+    /**
+     * Returns the cached token and refresh state of every region, instance and user a token was requested for:
+     * the age, expiry and source of the token, the next scheduled refresh, and the failures since the last
+     * successful refresh. Taking the snapshot does not block or delay refreshes, so it can back a readiness
+     * or diagnostics endpoint.
+     *
+     * @return the snapshots, sorted by region, instance ID and user name
+     */
+    public List<TokenSnapshot> getTokenSnapshots() {
+        return context.getTokenSnapshots();
+    }
+
+    /**
+     * Returns the configuration of this client.
+     *
+     * @return the configuration
+     */
+    public DBAuthConfig getConfig() {
+        return context.getConfig();
+    }
+
+    /**
+     * Returns whether this client has been closed.
+     *
+     * @return true after the client has been closed
+     */
+    public boolean isClosed() {
+        return context.isClosed();
+    }
+
+    /**
+     * Closes this client, waiting up to 10 seconds for running token requests, see {@link #close(long, TimeUnit)}.
+     */
+    @Override
+    public void close() {
+        close(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Closes this client. Scheduled refreshes are cancelled, token requests that are already running may
+     * complete within the timeout and are interrupted afterwards, and the cached tokens are cleared.
+     * Closing a closed client has no effect.
+     *
+     * @param timeout the maximum time to wait for running token requests
+     * @param unit    the unit of the timeout
+     * @return true if all token requests completed within the timeout, false otherwise
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        return context.close(timeout, unit);
+    }
+}
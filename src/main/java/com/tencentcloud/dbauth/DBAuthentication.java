@@ -1,13 +1,17 @@
 package com.tencentcloud.dbauth;
 
-import com.tencentcloud.dbauth.internal.ErrorCodeMatcher;
-import com.tencentcloud.dbauth.internal.Signer;
-import com.tencentcloud.dbauth.internal.Token;
+import com.tencentcloud.dbauth.model.AuthenticationTokenPair;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
 import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.TokenSnapshot;
 import com.tencentcloudapi.common.exception.TencentCloudSDKException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
  * DBAuthentication is a utility class that provides methods for generating authentication tokens.
  */
@@ -15,9 +19,78 @@ public final class DBAuthentication {
 
     private static final Logger log = LoggerFactory.getLogger(DBAuthentication.class);
 
+    // The configuration of the default client, or null to load it from the system properties and environment
+    private static DBAuthConfig defaultConfig;
+
+    // The store the default client shares its tokens through, or null if there is none
+    private static SharedTokenStore defaultSharedStore;
+
+    // Whether the default client has been created
+    private static boolean defaultClientCreated;
+
     private DBAuthentication() {
     }
 
+    /**
+     * Sets the configuration of the cache, refresh scheduler, retries and HTTP calls.
+     * <p>
+     * It must be called before any other method of this class. If it is not called, the configuration is
+     * loaded from the system properties and environment variables, see {@link DBAuthConfig#load()}.
+     * </p>
+     *
+     * @param config the configuration
+     * @throws IllegalStateException if a token has already been generated or a listener registered
+     */
+    public static void configure(DBAuthConfig config) {
+        configure(config, null);
+    }
+
+    /**
+     * Sets the configuration of the cache, refresh scheduler, retries and HTTP calls, and the store the tokens
+     * are shared through with the clients of other processes, see {@link SharedTokenStore}.
+     * <p>
+     * It must be called before any other method of this class.
+     * </p>
+     *
+     * @param config      the configuration
+     * @param sharedStore the store shared with the clients of other processes, or null if there is none
+     * @throws IllegalStateException if a token has already been generated or a listener registered
+     */
+    public static synchronized void configure(DBAuthConfig config, SharedTokenStore sharedStore) {
+        if (defaultClientCreated) {
+            throw new IllegalStateException("The configuration must be set before the first token is generated.");
+        }
+        defaultConfig = config;
+        defaultSharedStore = sharedStore;
+    }
+
+    /**
+     * Returns the client the static methods of this class delegate to, creating it on first use.
+     * <p>
+     * The default client is never closed. Applications that are stopped and started within one JVM, e.g. web
+     * applications in a servlet container, should create their own {@link DBAuthClient} and close it instead.
+     * </p>
+     *
+     * @return the default client
+     */
+    private static DBAuthClient getDefaultClient() {
+        return DefaultClientHolder.INSTANCE;
+    }
+
+    private static synchronized DBAuthClient newDefaultClient() {
+        defaultClientCreated = true;
+        DBAuthConfig config = defaultConfig;
+        if (config == null) {
+            try {
+                config = DBAuthConfig.load();
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid DBAuth configuration, using the defaults: {}", e.getMessage());
+                config = DBAuthConfig.defaults();
+            }
+        }
+        return new DBAuthClient(config, defaultSharedStore);
+    }
+
     /**
      * Generates an authentication token using the provided request.
      *
@@ -27,29 +100,118 @@ public final class DBAuthentication {
      */
     public static String generateAuthenticationToken(
             GenerateAuthenticationTokenRequest tokenRequest) throws TencentCloudSDKException {
-        // Create a new Signer with the provided token request.
-        Signer signer = new Signer(tokenRequest);
-        // Get the authentication token from the cache.
-        Token cachedToken = signer.getAuthTokenFromCache();
-        if (cachedToken != null) {
-            if (cachedToken.getExpires() > System.currentTimeMillis()) {
-                // If the token has not expired, return the token.
-                return cachedToken.getAuthToken();
-            }
-        }
-        try {
-            signer.buildAuthToken();
-            return signer.getAuthTokenFromCache().getAuthToken();
-        } catch (TencentCloudSDKException e) {
-            log.error("Error occurred while generating authentication token", e);
-            if (cachedToken != null) {
-                if (ErrorCodeMatcher.isUserNotificationRequired(e.getErrorCode())) {
-                    throw e;
-                } else {
-                    return cachedToken.getAuthToken();
-                }
-            }
-            throw e;
-        }
+        return getDefaultClient().generateAuthenticationToken(tokenRequest);
+    }
+
+    /**
+     * Generates an authentication token using the provided request, returning within the given timeout.
+     * <p>
+     * The timeout bounds the HTTP timeouts and retries of the CAM request. If it runs out, the cached token
+     * is returned even if it has expired, or else the fallback token from the local password file.
+     * </p>
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @param timeout      the maximum time to wait
+     * @param unit         the unit of the timeout
+     * @return the generated authentication token
+     * @throws TokenTimeoutException    if the timeout ran out and no cached or fallback token is available
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    public static String generateAuthenticationToken(
+            GenerateAuthenticationTokenRequest tokenRequest, long timeout, TimeUnit unit)
+            throws TencentCloudSDKException {
+        return getDefaultClient().generateAuthenticationToken(tokenRequest, timeout, unit);
+    }
+
+    /**
+     * Generates an authentication token using the provided request, together with the token it replaced if the
+     * last rotation is within the overlap window, see {@link DBAuthConfig#tokenOverlapWindow()}.
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @return the current and the previous authentication token
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    public static AuthenticationTokenPair generateAuthenticationTokenPair(
+            GenerateAuthenticationTokenRequest tokenRequest) throws TencentCloudSDKException {
+        return getDefaultClient().generateAuthenticationTokenPair(tokenRequest);
+    }
+
+    /**
+     * Generates an authentication token using the provided request, returning within the given timeout,
+     * together with the token it replaced if the last rotation is within the overlap window.
+     *
+     * @param tokenRequest the request containing the necessary information to generate an authentication token
+     * @param timeout      the maximum time to wait
+     * @param unit         the unit of the timeout
+     * @return the current and the previous authentication token
+     * @throws TokenTimeoutException    if the timeout ran out and no cached or fallback token is available
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    public static AuthenticationTokenPair generateAuthenticationTokenPair(
+            GenerateAuthenticationTokenRequest tokenRequest, long timeout, TimeUnit unit)
+            throws TencentCloudSDKException {
+        return getDefaultClient().generateAuthenticationTokenPair(tokenRequest, timeout, unit);
+    }
+
+    /**
+     * Returns the token to retry with after the database rejected a token around a rotation: the previous token
+     * if the current one was rejected, or the current token if the previous one was rejected. The retry needs
+     * no CAM request and is counted in {@link TokenSnapshot#rotationRetries()}.
+     *
+     * @param tokenRequest the request the rejected token was generated for
+     * @param failedToken  the token the database rejected
+     * @return the token to retry with, or null if there is none
+     */
+    public static String getRotationRetryToken(GenerateAuthenticationTokenRequest tokenRequest, String failedToken) {
+        return getDefaultClient().getRotationRetryToken(tokenRequest, failedToken);
+    }
+
+    /**
+     * Registers a listener that is notified when the token of any key is rotated, is about to expire,
+     * or is revoked. This lets connection pools update credentials proactively instead of finding out
+     * through failed authentications.
+     *
+     * @param listener the listener to register
+     */
+    public static void addTokenListener(TokenListener listener) {
+        getDefaultClient().addTokenListener(listener);
+    }
+
+    /**
+     * Unregisters a token listener.
+     *
+     * @param listener the listener to unregister
+     */
+    public static void removeTokenListener(TokenListener listener) {
+        getDefaultClient().removeTokenListener(listener);
+    }
+
+    /**
+     * Returns the number of background token refreshes waiting for a free worker, per region.
+     * A growing queue depth for a region indicates that CAM is slow or unreachable in that region.
+     *
+     * @return the queue depth of each region
+     */
+    public static Map<String, Integer> getRefreshQueueDepths() {
+        return getDefaultClient().getRefreshQueueDepths();
+    }
+
+    /**
+     * Returns the cached token and refresh state of every region, instance and user a token was requested for:
+     * the age, expiry and source of the token, the next scheduled refresh, and the failures since the last
+     * successful refresh. Taking the snapshot does not block or delay refreshes, so it can back a readiness
+     * or diagnostics endpoint.
+     *
+     * @return the snapshots, sorted by region, instance ID and user name
+     */
+    public static List<TokenSnapshot> getTokenSnapshots() {
+        return getDefaultClient().getTokenSnapshots();
+    }
+
+    /**
+     * Holds the default client, created on first use.
+     */
+    private static final class DefaultClientHolder {
+        private static final DBAuthClient INSTANCE = newDefaultClient();
     }
 }
\ No newline at end of file
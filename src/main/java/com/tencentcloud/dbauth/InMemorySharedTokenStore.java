@@ -0,0 +1,61 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloud.dbauth.model.SharedToken;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InMemorySharedTokenStore is a {@link SharedTokenStore} that keeps the tokens and leases in memory.
+ * <p>
+ * It is the reference implementation of the store contract and lets several {@link DBAuthClient} instances
+ * of one process, e.g. in tests, share their tokens. It does not share anything across processes.
+ * </p>
+ */
+public final class InMemorySharedTokenStore implements SharedTokenStore {
+
+    // The stored tokens
+    private final ConcurrentHashMap<String, SharedToken> tokens = new ConcurrentHashMap<>();
+
+    // The refresh leases
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public SharedToken get(String key) {
+        return tokens.get(key);
+    }
+
+    @Override
+    public void put(String key, SharedToken token) {
+        tokens.put(key, token);
+    }
+
+    @Override
+    public boolean tryAcquireRefreshLease(String key, String owner, long leaseDuration) {
+        long now = System.currentTimeMillis();
+        Lease lease = leases.compute(key, (k, current) -> {
+            if (current == null || current.owner.equals(owner) || current.expires <= now) {
+                return new Lease(owner, now + leaseDuration);
+            }
+            return current;
+        });
+        return lease.owner.equals(owner);
+    }
+
+    @Override
+    public void releaseRefreshLease(String key, String owner) {
+        leases.computeIfPresent(key, (k, current) -> current.owner.equals(owner) ? null : current);
+    }
+
+    /**
+     * A refresh lease held by one owner until it expires.
+     */
+    private static final class Lease {
+        private final String owner;
+        private final long expires;
+
+        Lease(String owner, long expires) {
+            this.owner = owner;
+            this.expires = expires;
+        }
+    }
+}
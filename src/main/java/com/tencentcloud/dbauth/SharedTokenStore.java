@@ -0,0 +1,58 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloud.dbauth.model.SharedToken;
+
+/**
+ * SharedTokenStore is a second-level token cache shared by the clients of several processes, e.g. the pods of
+ * a deployment, backed by a remote store such as Redis.
+ * <p>
+ * The tokens requested from CAM are stored under an opaque key per region, instance, user and credential.
+ * Before a client refreshes a key, it tries to acquire the refresh lease of the key. Only the client holding
+ * the lease requests the token from CAM; the others use the token it stored. So a fleet of clients makes about
+ * one CAM request per key and refresh interval instead of one per client.
+ * </p>
+ * <p>
+ * The in-process cache is still consulted first, so the store is only called when a token is refreshed or not
+ * cached yet. Implementations must be thread-safe and should fail fast: exceptions are logged and the client
+ * requests the token from CAM instead. The stored tokens are database passwords, so the store must be
+ * protected accordingly.
+ * </p>
+ */
+public interface SharedTokenStore {
+
+    /**
+     * Returns the token stored under the given key.
+     *
+     * @param key the key of the token
+     * @return the token, or null if none is stored
+     */
+    SharedToken get(String key);
+
+    /**
+     * Stores the token under the given key, replacing the stored token.
+     *
+     * @param key   the key of the token
+     * @param token the token to store
+     */
+    void put(String key, SharedToken token);
+
+    /**
+     * Acquires the refresh lease of the given key for the given owner, unless another owner holds it.
+     * Acquiring a lease the owner already holds extends it.
+     *
+     * @param key           the key of the token
+     * @param owner         the client that wants to refresh the token
+     * @param leaseDuration the time in milliseconds after which the lease expires if it is not released
+     * @return true if the owner holds the lease now, false if another owner holds it
+     */
+    boolean tryAcquireRefreshLease(String key, String owner, long leaseDuration);
+
+    /**
+     * Releases the refresh lease of the given key if the given owner holds it, so another client can refresh
+     * the token right away, e.g. after the owner failed to request it.
+     *
+     * @param key   the key of the token
+     * @param owner the client that holds the lease
+     */
+    void releaseRefreshLease(String key, String owner);
+}
@@ -0,0 +1,21 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloud.dbauth.model.TokenEvent;
+
+/**
+ * TokenListener receives notifications when the authentication token of a registered key changes.
+ * <p>
+ * Listeners are invoked synchronously on the token refresh thread, so implementations should return quickly and
+ * hand off any expensive work, such as evicting pooled connections, to their own executor.
+ * </p>
+ */
+@FunctionalInterface
+public interface TokenListener {
+
+    /**
+     * Called when the token of a key is rotated, is about to expire, or has been revoked.
+     *
+     * @param event the token event
+     */
+    void onTokenEvent(TokenEvent event);
+}
@@ -0,0 +1,22 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+
+/**
+ * TokenTimeoutException is thrown when an authentication token could not be acquired before the caller's
+ * deadline and neither a cached nor a fallback token was available.
+ */
+public class TokenTimeoutException extends TencentCloudSDKException {
+    private static final long serialVersionUID = 1L;
+
+    public static final String ERROR_CODE = "ClientSideError.Timeout";
+
+    /**
+     * Constructs a new TokenTimeoutException with the given message.
+     *
+     * @param message the detail message
+     */
+    public TokenTimeoutException(String message) {
+        super(message, "", ERROR_CODE);
+    }
+}
@@ -0,0 +1,119 @@
+package com.tencentcloud.dbauth.internal;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * AuthTokenInfoDecoder is a utility class that reads the password of a serialized AuthTokenInfo message
+ * directly from the decrypted buffer, without copying the buffer or building the whole message.
+ * <p>
+ * It understands the protobuf wire format of AuthTokenInfo.proto, skips every field but the password and
+ * does not need the protobuf-java runtime.
+ * </p>
+ */
+public final class AuthTokenInfoDecoder {
+    // The field number of the password in AuthTokenInfo.proto
+    private static final int PASSWORD_FIELD_NUMBER = 8;
+
+    private static final int WIRETYPE_VARINT = 0;
+    private static final int WIRETYPE_FIXED64 = 1;
+    private static final int WIRETYPE_LENGTH_DELIMITED = 2;
+    private static final int WIRETYPE_FIXED32 = 5;
+
+    private final byte[] buffer;
+    private final int limit;
+    private int pos;
+
+    private AuthTokenInfoDecoder(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Reads the password field of the AuthTokenInfo message stored in the given range of the buffer.
+     *
+     * @param buffer the buffer containing the serialized message
+     * @param offset the offset of the message in the buffer
+     * @param length the length of the message
+     * @return the password, or an empty string if the message has no password, like protobuf does
+     * @throws Exception if the message is malformed
+     */
+    public static String readPassword(byte[] buffer, int offset, int length) throws Exception {
+        if (buffer == null || offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new Exception("Failed to parse AuthTokenInfo, invalid buffer range");
+        }
+        return new AuthTokenInfoDecoder(buffer, offset, length).readPassword();
+    }
+
+    private String readPassword() throws Exception {
+        String password = "";
+        while (pos < limit) {
+            long tag = readVarint();
+            int fieldNumber = (int) (tag >>> 3);
+            int wireType = (int) (tag & 0x7);
+            if (fieldNumber == 0) {
+                throw new Exception("Failed to parse AuthTokenInfo, invalid tag");
+            }
+
+            if (fieldNumber == PASSWORD_FIELD_NUMBER && wireType == WIRETYPE_LENGTH_DELIMITED) {
+                int length = readLength();
+                // A later occurrence of the field overrides an earlier one
+                password = new String(buffer, pos, length, StandardCharsets.UTF_8);
+                pos += length;
+            } else {
+                skipField(wireType);
+            }
+        }
+        return password;
+    }
+
+    private void skipField(int wireType) throws Exception {
+        switch (wireType) {
+            case WIRETYPE_VARINT:
+                readVarint();
+                break;
+            case WIRETYPE_FIXED64:
+                skip(8);
+                break;
+            case WIRETYPE_LENGTH_DELIMITED:
+                int length = readLength();
+                pos += length;
+                break;
+            case WIRETYPE_FIXED32:
+                skip(4);
+                break;
+            default:
+                throw new Exception("Failed to parse AuthTokenInfo, unsupported wire type " + wireType);
+        }
+    }
+
+    private int readLength() throws Exception {
+        long length = readVarint();
+        if (length < 0 || length > limit - pos) {
+            throw new Exception("Failed to parse AuthTokenInfo, truncated message");
+        }
+        return (int) length;
+    }
+
+    private void skip(int length) throws Exception {
+        if (length > limit - pos) {
+            throw new Exception("Failed to parse AuthTokenInfo, truncated message");
+        }
+        pos += length;
+    }
+
+    private long readVarint() throws Exception {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos >= limit) {
+                throw new Exception("Failed to parse AuthTokenInfo, truncated message");
+            }
+            byte b = buffer[pos++];
+            result |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new Exception("Failed to parse AuthTokenInfo, malformed varint");
+    }
+}
@@ -1,8 +1,6 @@
 package com.tencentcloud.dbauth.internal;
 
-import com.google.protobuf.InvalidProtocolBufferException;
 import com.tencentcloud.dbauth.model.AuthTokenInfoOuterClass;
-import com.tencentcloudapi.common.exception.TencentCloudSDKException;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.crypto.Cipher;
@@ -17,6 +15,11 @@ import java.util.Base64;
  * AuthTokenParser is a utility class that provides methods for parsing and storing authentication token information.
  */
 public class AuthTokenParser {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // The number of bytes in front of the serialized AuthTokenInfo in a decrypted token
+    private static final int TOKEN_HEADER_SIZE = 4;
+
     /**
      * Parses the authentication token and returns the authentication token information.
      *
@@ -29,6 +32,45 @@ public class AuthTokenParser {
      */
     public static AuthTokenInfoOuterClass.AuthTokenInfo parseAuthToken(
             String instanceId, String region, String userName, String token) throws Exception {
+        // Parse token
+        return getAuthTokenInfo(decryptAuthToken(instanceId, region, userName, token));
+    }
+
+    /**
+     * Parses the authentication token and returns only the password it contains.
+     * <p>
+     * Unlike {@link #parseAuthToken}, this reads the password straight from the decrypted buffer and
+     * does not need the protobuf-java runtime.
+     * </p>
+     *
+     * @param instanceId the instance ID
+     * @param region     the region
+     * @param userName   the userName
+     * @param token      the authentication token
+     * @return the password
+     * @throws Exception if an error occurs during parsing
+     */
+    public static String parseAuthTokenPassword(
+            String instanceId, String region, String userName, String token) throws Exception {
+        byte[] decToken = decryptAuthToken(instanceId, region, userName, token);
+        if (decToken.length < TOKEN_HEADER_SIZE) {
+            throw new Exception("Failed to parse AuthTokenInfo, token too short");
+        }
+        return AuthTokenInfoDecoder.readPassword(decToken, TOKEN_HEADER_SIZE, decToken.length - TOKEN_HEADER_SIZE);
+    }
+
+    /**
+     * Decrypts the authentication token and verifies that it has not been truncated.
+     *
+     * @param instanceId the instance ID
+     * @param region     the region
+     * @param userName   the userName
+     * @param token      the authentication token
+     * @return the decrypted token
+     * @throws Exception if an error occurs during decryption
+     */
+    private static byte[] decryptAuthToken(
+            String instanceId, String region, String userName, String token) throws Exception {
         if (StringUtils.isAnyEmpty(instanceId, region, userName, token)) {
             throw new Exception("param empty");
         }
@@ -48,9 +90,7 @@ public class AuthTokenParser {
         if (!token.substring(0, 64).equals(tokenHash)) {
             throw new Exception("token not compare");
         }
-
-        // Parse token
-        return getAuthTokenInfo(decToken);
+        return decToken;
     }
 
     /**
@@ -58,18 +98,11 @@ public class AuthTokenParser {
      *
      * @param decToken the decrypted token
      * @return the parsed authentication token information
-     * @throws TencentCloudSDKException if an error occurs during parsing
+     * @throws Exception if an error occurs during parsing
      */
     private static AuthTokenInfoOuterClass.AuthTokenInfo getAuthTokenInfo(byte[] decToken) throws Exception {
-        byte[] subToken = Arrays.copyOfRange(decToken, 4, decToken.length);
-
-        AuthTokenInfoOuterClass.AuthTokenInfo tokenInfo;
-        try {
-            tokenInfo = AuthTokenInfoOuterClass.AuthTokenInfo.parseFrom(subToken);
-        } catch (InvalidProtocolBufferException e) {
-            throw new Exception("Failed to parse AuthTokenInfo", e);
-        }
-        return tokenInfo;
+        byte[] subToken = Arrays.copyOfRange(decToken, TOKEN_HEADER_SIZE, decToken.length);
+        return ProtobufAuthTokenParser.parse(subToken);
     }
 
     /**
@@ -82,12 +115,13 @@ public class AuthTokenParser {
     public static String sha256(byte[] base) throws NoSuchAlgorithmException {
         MessageDigest digest = MessageDigest.getInstance(Constants.SHA256);
         byte[] hash = digest.digest(base);
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hash) {
-            String hex = String.format("%02x", b);
-            hexString.append(hex);
+        // Avoid String.format, which loads and initializes the Formatter machinery on the first token
+        char[] hexChars = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hexChars[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+            hexChars[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0f];
         }
-        return hexString.toString();
+        return new String(hexChars);
     }
 
     /**
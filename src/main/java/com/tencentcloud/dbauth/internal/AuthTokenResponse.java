@@ -0,0 +1,50 @@
+package com.tencentcloud.dbauth.internal;
+
+/**
+ * AuthTokenResponse is a utility class that holds the result of a BuildDataFlowAuthToken call,
+ * independent of the client used to call CAM.
+ */
+public final class AuthTokenResponse {
+    // The request ID of the CAM call
+    private final String requestId;
+
+    // The encrypted authentication token, or null if CAM returned no credentials
+    private final String token;
+
+    // The current time of the CAM server in milliseconds
+    private final long currentTime;
+
+    // The time of the next token rotation in milliseconds
+    private final long nextRotationTime;
+
+    /**
+     * Constructs a new AuthTokenResponse.
+     *
+     * @param requestId        the request ID of the CAM call
+     * @param token            the encrypted authentication token
+     * @param currentTime      the current time of the CAM server in milliseconds
+     * @param nextRotationTime the time of the next token rotation in milliseconds
+     */
+    public AuthTokenResponse(String requestId, String token, long currentTime, long nextRotationTime) {
+        this.requestId = requestId;
+        this.token = token;
+        this.currentTime = currentTime;
+        this.nextRotationTime = nextRotationTime;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    public long getNextRotationTime() {
+        return nextRotationTime;
+    }
+}
@@ -0,0 +1,157 @@
+package com.tencentcloud.dbauth.internal;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead is a utility class that runs tasks of one partition, e.g. one region, with a bounded concurrency,
+ * so that slow tasks of one partition cannot occupy the threads of the others. Tasks waiting for a free worker
+ * run in the order of their priority.
+ */
+public final class Bulkhead {
+    // The time in seconds an idle worker thread is kept alive
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    // The name of the partition
+    private final String name;
+    // The executor running the tasks of the partition
+    private final ThreadPoolExecutor executor;
+    // The submission order of the tasks, so tasks of equal priority run first in, first out
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Constructs a new Bulkhead with the given name and maximum concurrency.
+     *
+     * @param name           the name of the partition
+     * @param maxConcurrency the maximum number of tasks running at the same time
+     */
+    public Bulkhead(String name, int maxConcurrency) {
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true); // Set the thread as a daemon thread
+                thread.setName("BulkheadThread-" + name + "-" + counter.incrementAndGet());
+                return thread;
+            }
+        });
+        // Let idle partitions release their threads
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Submits a task to run in this bulkhead with the lowest priority.
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        execute(task, 0);
+    }
+
+    /**
+     * Submits a task to run in this bulkhead. If all workers are busy, the task waits behind the waiting tasks
+     * of the same or higher priority.
+     *
+     * @param task     the task to run
+     * @param priority the priority of the task, higher runs first
+     */
+    public void execute(Runnable task, double priority) {
+        executor.execute(new PrioritizedTask(task, priority, sequence.getAndIncrement()));
+    }
+
+    /**
+     * Returns the name of the partition.
+     *
+     * @return the name of the partition
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a free worker.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the approximate number of tasks currently running.
+     *
+     * @return the number of running tasks
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the maximum number of tasks running at the same time.
+     *
+     * @return the maximum concurrency
+     */
+    public int getMaxConcurrency() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Stops accepting tasks and drops the tasks waiting for a free worker. Running tasks complete.
+     */
+    public void shutdown() {
+        executor.getQueue().clear();
+        executor.shutdown();
+    }
+
+    /**
+     * Interrupts the running tasks.
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Waits until the running tasks have completed after a shutdown.
+     *
+     * @param deadline the deadline to wait until
+     * @return true if all tasks completed, false if the deadline passed first
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean awaitTermination(Deadline deadline) throws InterruptedException {
+        return executor.awaitTermination(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A task with the priority and submission order it is queued by.
+     */
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final Runnable task;
+        private final double priority;
+        private final long sequence;
+
+        PrioritizedTask(Runnable task, double priority, long sequence) {
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int result = Double.compare(other.priority, priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+
+/**
+ * CamTransport sends a single BuildDataFlowAuthToken request to CAM. Retries are left to the caller.
+ */
+public interface CamTransport {
+
+    /**
+     * Requests an encrypted authentication token from CAM.
+     *
+     * @param request  the request containing the instance, region, user and credential
+     * @param deadline the deadline the HTTP timeouts are capped to
+     * @return the response, or null if CAM returned no response
+     * @throws TencentCloudSDKException if the request fails or CAM returns an error
+     */
+    AuthTokenResponse buildDataFlowAuthToken(GenerateAuthenticationTokenRequest request, Deadline deadline)
+            throws TencentCloudSDKException;
+}
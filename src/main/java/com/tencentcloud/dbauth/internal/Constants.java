@@ -5,8 +5,6 @@ public final class Constants {
 
     public static final String INPUT_PATH_DIR = ".com.tencentcloudapi/tencentcloud-dbauth-sdk-java/input/";
 
-    public static final long MAX_DELAY = 24 * 60 * 60 * 1000;
-
     public static final String SHA256 = "SHA-256";
 
     public static final String CAM_INTERNAL_ENDPOINT = "cam.internal.tencentcloudapi.com";
@@ -0,0 +1,139 @@
+package com.tencentcloud.dbauth.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline is a utility class that represents the point in time by which a token acquisition must finish.
+ */
+public final class Deadline {
+    // The deadline of calls without a time limit
+    private static final Deadline NONE = new Deadline(false, 0);
+
+    // Whether the deadline limits the call at all
+    private final boolean bounded;
+
+    // The deadline in System.nanoTime() units, only moved later when the deadline is extended
+    private volatile long deadlineNanos;
+
+    private Deadline(boolean bounded, long deadlineNanos) {
+        this.bounded = bounded;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Returns a deadline that never expires.
+     *
+     * @return the unbounded deadline
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a deadline that expires after the given timeout from now.
+     *
+     * @param timeout the timeout
+     * @param unit    the unit of the timeout
+     * @return the deadline
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(true, System.nanoTime() + unit.toNanos(Math.max(0, timeout)));
+    }
+
+    /**
+     * Returns a copy of this deadline that can be extended, e.g. for a request shared by several callers.
+     *
+     * @return the copy
+     */
+    Deadline copy() {
+        return bounded ? new Deadline(true, deadlineNanos) : NONE;
+    }
+
+    /**
+     * Extends this deadline to the other one if that expires later.
+     *
+     * @param other the other deadline
+     */
+    synchronized void extendTo(Deadline other) {
+        if (bounded && other.bounded && isBefore(other)) {
+            deadlineNanos = other.deadlineNanos;
+        }
+    }
+
+    /**
+     * Returns whether this deadline limits the call.
+     *
+     * @return true if the deadline is bounded
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * Returns whether the deadline has passed.
+     *
+     * @return true if the deadline has passed
+     */
+    public boolean isExpired() {
+        return bounded && deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns whether this deadline expires before the other one.
+     *
+     * @param other the other deadline
+     * @return true if this deadline is bounded and expires earlier than the other one
+     */
+    public boolean isBefore(Deadline other) {
+        if (!bounded) {
+            return false;
+        }
+        return !other.bounded || deadlineNanos - other.deadlineNanos < 0;
+    }
+
+    /**
+     * Returns the remaining time in milliseconds.
+     *
+     * @return the remaining time, 0 if expired, or Long.MAX_VALUE if unbounded
+     */
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Caps a timeout in seconds to the remaining time, rounded up to at least one second.
+     *
+     * @param timeoutSeconds the configured timeout in seconds, 0 for no timeout
+     * @return the capped timeout in seconds
+     */
+    public int capSeconds(int timeoutSeconds) {
+        if (!bounded) {
+            return timeoutSeconds;
+        }
+        long remainingSeconds = Math.max(1, (remainingMillis() + 999) / 1000);
+        if (timeoutSeconds <= 0) {
+            return (int) Math.min(Integer.MAX_VALUE, remainingSeconds);
+        }
+        return (int) Math.min(timeoutSeconds, remainingSeconds);
+    }
+
+    /**
+     * Caps a timeout in milliseconds to the remaining time, rounded up to at least one millisecond.
+     *
+     * @param timeoutMillis the configured timeout in milliseconds, 0 for no timeout
+     * @return the capped timeout in milliseconds
+     */
+    public int capMillis(int timeoutMillis) {
+        if (!bounded) {
+            return timeoutMillis;
+        }
+        long remaining = Math.max(1, remainingMillis());
+        if (timeoutMillis <= 0) {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+        return (int) Math.min(timeoutMillis, remaining);
+    }
+}
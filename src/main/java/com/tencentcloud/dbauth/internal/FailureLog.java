@@ -0,0 +1,156 @@
+package com.tencentcloud.dbauth.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FailureLog is a utility class that rate-limits the logging of failed token requests.
+ * <p>
+ * During a CAM outage every key fails on every refresh. Instead of logging each failure, the first failure of a
+ * key with an error code is logged, and after that at most one failure per key, error code and interval together
+ * with the number of failures suppressed in between, so a key alternating between error codes is not logged on
+ * every failure either. Once per interval a summary line per error code tells how many keys
+ * failed with it, so the extent of an outage stays visible.
+ * </p>
+ */
+public final class FailureLog {
+    private static final Logger log = LoggerFactory.getLogger(FailureLog.class);
+
+    // The minimum time in milliseconds between two logged failures of a key and between two summaries,
+    // 0 or less to log every failure
+    private final long interval;
+
+    // The failures of the keys whose last token request failed
+    private final ConcurrentHashMap<String, KeyFailures> keyFailures = new ConcurrentHashMap<>();
+
+    // The failures per error code since the last summary
+    private final ConcurrentHashMap<String, CodeFailures> codeFailures = new ConcurrentHashMap<>();
+
+    // The time of the last summary
+    private final AtomicLong summarizedAt = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Constructs a new FailureLog.
+     *
+     * @param interval the minimum time in milliseconds between two logged failures of a key,
+     *                 0 or less to log every failure
+     */
+    public FailureLog(long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Records a failed token request of the given key and decides whether to log it.
+     *
+     * @param key       the key of the token
+     * @param errorCode the error code of the failure
+     * @param now       the current time in milliseconds
+     * @return the number of failures of the key with the error code suppressed since the last logged one,
+     * or -1 if this failure should be suppressed as well
+     */
+    public long recordFailure(String key, String errorCode, long now) {
+        if (interval <= 0) {
+            return 0;
+        }
+        String code = String.valueOf(errorCode);
+        summarize(now);
+        codeFailures.computeIfAbsent(code, k -> new CodeFailures()).record(key);
+        return keyFailures.computeIfAbsent(key, k -> new KeyFailures()).record(code, now, interval);
+    }
+
+    /**
+     * Records a successful token request of the given key.
+     *
+     * @param key the key of the token
+     * @param now the current time in milliseconds
+     * @return the number of failures of the key since its last successful request
+     */
+    public long recordSuccess(String key, long now) {
+        if (interval <= 0) {
+            return 0;
+        }
+        summarize(now);
+        KeyFailures failures = keyFailures.remove(key);
+        return failures != null ? failures.getTotal() : 0;
+    }
+
+    /**
+     * Logs a summary line per error code once the interval since the last summary has passed.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void summarize(long now) {
+        long last = summarizedAt.get();
+        if (now - last < interval || !summarizedAt.compareAndSet(last, now)) {
+            return;
+        }
+        for (Map.Entry<String, CodeFailures> entry : codeFailures.entrySet()) {
+            CodeFailures failures = entry.getValue();
+            codeFailures.remove(entry.getKey(), failures);
+            log.warn("{} keys failing with {} over the last {} s, {} failed requests",
+                    failures.keys.size(), entry.getKey(), (now - last) / 1000, failures.count.sum());
+        }
+    }
+
+    /**
+     * The failures of one key since its last successful token request.
+     */
+    private static final class KeyFailures {
+        // The logged and suppressed failures of each error code of the key
+        private final Map<String, CodeLog> codeLogs = new HashMap<>();
+        private long total;
+
+        synchronized long record(String errorCode, long now, long interval) {
+            total++;
+            CodeLog codeLog = codeLogs.get(errorCode);
+            if (codeLog == null) {
+                codeLogs.put(errorCode, new CodeLog(now));
+                return 0;
+            }
+            if (now - codeLog.loggedAt < interval) {
+                codeLog.suppressed++;
+                return -1;
+            }
+            long suppressedBefore = codeLog.suppressed;
+            codeLog.loggedAt = now;
+            codeLog.suppressed = 0;
+            return suppressedBefore;
+        }
+
+        synchronized long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * The last logged failure of one key with one error code and the failures suppressed since.
+     */
+    private static final class CodeLog {
+        private long loggedAt;
+        private long suppressed;
+
+        CodeLog(long loggedAt) {
+            this.loggedAt = loggedAt;
+        }
+    }
+
+    /**
+     * The failures with one error code since the last summary.
+     */
+    private static final class CodeFailures {
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        private final LongAdder count = new LongAdder();
+
+        void record(String key) {
+            keys.add(key);
+            count.increment();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tencentcloud.dbauth.internal;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * InFlightRequest is a utility class that represents a token request with a deadline that is still running,
+ * so concurrent callers of the same key can wait for it instead of calling CAM again.
+ * <p>
+ * The HTTP timeouts and retries of the request are limited to the latest deadline of the callers waiting for it,
+ * so a caller that joins later is not cut short by the deadline of the caller that started the request.
+ * </p>
+ */
+public final class InFlightRequest {
+    // The deadline of the request, extended as callers join
+    private final Deadline deadline;
+
+    // Completed when the request finishes
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    /**
+     * Constructs a new InFlightRequest.
+     *
+     * @param deadline the deadline of the caller starting the request
+     */
+    public InFlightRequest(Deadline deadline) {
+        this.deadline = deadline.copy();
+    }
+
+    /**
+     * Adds a caller waiting for this request, extending the deadline of the request to the caller's.
+     *
+     * @param callerDeadline the deadline of the caller
+     */
+    public void join(Deadline callerDeadline) {
+        deadline.extendTo(callerDeadline);
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+}
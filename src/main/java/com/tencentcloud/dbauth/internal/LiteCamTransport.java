@@ -0,0 +1,183 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloudapi.cam.v20190116.CamErrorCode;
+import com.tencentcloudapi.common.Credential;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.common.profile.HttpProfile;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * LiteCamTransport calls BuildDataFlowAuthToken with a built-in TC3-HMAC-SHA256 signer over
+ * {@link HttpURLConnection}, without loading the CamClient, OkHttp and Gson class graph of tencentcloud-sdk-java.
+ * <p>
+ * Response bodies are always read to the end and connections are never disconnected explicitly, so the JDK
+ * keeps the connections alive and reuses them for later requests to the same endpoint.
+ * </p>
+ */
+public final class LiteCamTransport implements CamTransport {
+    private static final String SERVICE = "cam";
+    private static final String ACTION = "BuildDataFlowAuthToken";
+    private static final String VERSION = "2019-01-16";
+    private static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 60;
+
+    private final Tc3Signer signer = new Tc3Signer();
+
+    // The read timeout in seconds used when no client profile is set
+    private final int httpTimeout;
+
+    /**
+     * Constructs a new LiteCamTransport with the given configuration.
+     *
+     * @param config the configuration
+     */
+    public LiteCamTransport(DBAuthConfig config) {
+        this.httpTimeout = config.httpTimeout();
+    }
+
+    @Override
+    public AuthTokenResponse buildDataFlowAuthToken(GenerateAuthenticationTokenRequest request, Deadline deadline)
+            throws TencentCloudSDKException {
+        HttpProfile httpProfile = request.clientProfile() != null ? request.clientProfile().getHttpProfile() : null;
+        String host = httpProfile != null && StringUtils.isNotEmpty(httpProfile.getEndpoint())
+                ? httpProfile.getEndpoint() : Constants.CAM_EXTERNAL_ENDPOINT;
+        String protocol = httpProfile != null && StringUtils.isNotEmpty(httpProfile.getProtocol())
+                ? httpProfile.getProtocol() : HttpProfile.REQ_HTTPS;
+        int connectTimeout = httpProfile != null ? httpProfile.getConnTimeout() : DEFAULT_CONNECT_TIMEOUT_SECONDS;
+        int readTimeout = httpProfile != null ? httpProfile.getReadTimeout() : httpTimeout;
+
+        byte[] payload = ("{\"ResourceId\":" + SimpleJson.quote(request.instanceId())
+                + ",\"ResourceRegion\":" + SimpleJson.quote(request.region())
+                + ",\"ResourceAccount\":" + SimpleJson.quote(request.userName()) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        String body;
+        try {
+            body = post(protocol + host + "/", host, request.region(), request.credential(), payload,
+                    deadline.capMillis(connectTimeout * 1000), deadline.capMillis(readTimeout * 1000));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new TencentCloudSDKException(
+                    "Failed to request AuthToken, error: " + e.getMessage(), "", CamErrorCode.INTERNALERROR.getValue());
+        }
+        return parseResponse(body);
+    }
+
+    /**
+     * Sends the signed request and returns the response body.
+     *
+     * @param url            the URL of the endpoint
+     * @param host           the host of the endpoint
+     * @param region         the region of the request
+     * @param credential     the credential to sign with
+     * @param payload        the request body
+     * @param connectTimeout the connect timeout in milliseconds, 0 for no timeout
+     * @param readTimeout    the read timeout in milliseconds, 0 for no timeout
+     * @return the response body
+     */
+    private String post(String url, String host, String region, Credential credential, byte[] payload,
+                        int connectTimeout, int readTimeout) throws IOException, GeneralSecurityException {
+        long timestamp = System.currentTimeMillis() / 1000;
+        String authorization = signer.authorization(credential, SERVICE, host, ACTION, timestamp, payload);
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(payload.length);
+        connection.setRequestProperty("Authorization", authorization);
+        connection.setRequestProperty("Content-Type", Tc3Signer.CONTENT_TYPE);
+        connection.setRequestProperty("Host", host);
+        connection.setRequestProperty("X-TC-Action", ACTION);
+        connection.setRequestProperty("X-TC-Timestamp", String.valueOf(timestamp));
+        connection.setRequestProperty("X-TC-Version", VERSION);
+        connection.setRequestProperty("X-TC-Region", region);
+        if (StringUtils.isNotEmpty(credential.getToken())) {
+            connection.setRequestProperty("X-TC-Token", credential.getToken());
+        }
+
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(payload);
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in == null) {
+            throw new IOException("Empty response, HTTP status " + status);
+        }
+        String body;
+        try (InputStream stream = in) {
+            body = readFully(stream);
+        }
+        if (status != 200) {
+            throw new IOException("Unexpected HTTP status " + status + ", body: " + body);
+        }
+        return body;
+    }
+
+    /**
+     * Parses a BuildDataFlowAuthToken response body.
+     *
+     * @param body the response body
+     * @return the parsed response
+     * @throws TencentCloudSDKException if the body is invalid or contains an error
+     */
+    static AuthTokenResponse parseResponse(String body) throws TencentCloudSDKException {
+        Object json;
+        try {
+            json = SimpleJson.parse(body);
+        } catch (IllegalArgumentException e) {
+            throw new TencentCloudSDKException(
+                    "Failed to parse AuthToken response, error: " + e.getMessage(),
+                    "",
+                    CamErrorCode.INTERNALERROR.getValue());
+        }
+
+        Object response = SimpleJson.get(json, "Response");
+        if (response == null) {
+            return null;
+        }
+        String requestId = asString(SimpleJson.get(response, "RequestId"));
+        Object error = SimpleJson.get(response, "Error");
+        if (error != null) {
+            throw new TencentCloudSDKException(
+                    asString(SimpleJson.get(error, "Message")), requestId, asString(SimpleJson.get(error, "Code")));
+        }
+
+        Object credentials = SimpleJson.get(response, "Credentials");
+        if (credentials == null) {
+            return new AuthTokenResponse(requestId, null, 0, 0);
+        }
+        return new AuthTokenResponse(requestId,
+                asString(SimpleJson.get(credentials, "Token")),
+                asLong(SimpleJson.get(credentials, "CurrentTime")),
+                asLong(SimpleJson.get(credentials, "NextRotationTime")));
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.tencentcloud.dbauth.model.AuthTokenInfoOuterClass;
+
+/**
+ * ProtobufAuthTokenParser parses the authentication token information with the protobuf-java runtime.
+ * <p>
+ * It is kept apart from {@link AuthTokenParser} because its catch clause makes the JVM load the protobuf classes
+ * when the class is verified. Only {@link AuthTokenParser#parseAuthToken} references it, so the password path
+ * works without protobuf-java on the class path.
+ * </p>
+ */
+final class ProtobufAuthTokenParser {
+
+    private ProtobufAuthTokenParser() {
+    }
+
+    /**
+     * Parses the authentication token information from the given message.
+     *
+     * @param message the serialized authentication token information
+     * @return the parsed authentication token information
+     * @throws Exception if an error occurs during parsing
+     */
+    static AuthTokenInfoOuterClass.AuthTokenInfo parse(byte[] message) throws Exception {
+        try {
+            return AuthTokenInfoOuterClass.AuthTokenInfo.parseFrom(message);
+        } catch (InvalidProtocolBufferException e) {
+            throw new Exception("Failed to parse AuthTokenInfo", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.tencentcloud.dbauth.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter is a utility class that limits the rate of CAM requests with a token bucket.
+ * <p>
+ * Foreground requests, i.e. cache misses of callers waiting for a token, always go first: background refreshes
+ * wait while a foreground request is waiting, and leave a part of the bucket unused so that a burst of
+ * foreground requests can still be served right away.
+ * </p>
+ */
+public final class RateLimiter {
+    // The share of the bucket that background refreshes leave to foreground requests
+    private static final double BACKGROUND_RESERVED_RATIO = 0.2;
+
+    // The number of permits added per second, 0 or less for no limit
+    private final double permitsPerSecond;
+    // The maximum number of stored permits, i.e. the size of a burst
+    private final double maxPermits;
+    // The number of permits background refreshes must leave in the bucket
+    private final double reservedPermits;
+
+    private double storedPermits;
+    private long lastRefillNanos;
+    private int waitingForeground;
+
+    /**
+     * Constructs a new RateLimiter.
+     *
+     * @param permitsPerSecond the number of requests allowed per second, 0 or less for no limit
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        // A background refresh needs 1 + reservedPermits, which must fit into the bucket even below 1.25 qps
+        this.reservedPermits = Math.min(maxPermits * BACKGROUND_RESERVED_RATIO, maxPermits - 1);
+        this.storedPermits = maxPermits;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns whether the limiter limits the request rate at all.
+     *
+     * @return true if a rate limit is configured
+     */
+    public boolean isEnabled() {
+        return permitsPerSecond > 0;
+    }
+
+    /**
+     * Acquires a permit for one request, waiting until one is available or the deadline passes.
+     *
+     * @param foreground true for a request a caller is waiting for, false for a background refresh
+     * @param deadline   the deadline to wait until
+     * @return true if a permit was acquired, false if the deadline passed first
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean acquire(boolean foreground, Deadline deadline) throws InterruptedException {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (foreground) {
+                waitingForeground++;
+            }
+            try {
+                while (true) {
+                    refill();
+                    double required = foreground ? 1 : 1 + reservedPermits;
+                    if ((foreground || waitingForeground == 0) && storedPermits >= required) {
+                        storedPermits -= 1;
+                        return true;
+                    }
+                    if (deadline.isExpired()) {
+                        return false;
+                    }
+                    long waitMillis = (long) Math.ceil(
+                            Math.max(0, required - storedPermits) / permitsPerSecond * 1000);
+                    wait(Math.max(1, Math.min(waitMillis, deadline.remainingMillis())));
+                }
+            } finally {
+                if (foreground) {
+                    waitingForeground--;
+                    // Let waiting background refreshes re-check once no foreground request is waiting
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        storedPermits = Math.min(maxPermits, storedPermits + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,148 @@
+package com.tencentcloud.dbauth.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RefreshStatus is a utility class that records the outcome of the token refreshes of one key,
+ * so the state of the cache can be inspected without locking the refresh path.
+ */
+public final class RefreshStatus {
+    // The weight of the latest sample in the smoothed access rate
+    private static final double RATE_SMOOTHING = 0.5;
+
+    // The region of the key
+    private final String region;
+
+    // The instance ID of the key
+    private final String instanceId;
+
+    // The user name of the key
+    private final String userName;
+
+    // The number of failed CAM requests since the last successful one
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    // The error code of the last failed refresh, or null if no refresh has failed
+    private volatile String lastErrorCode;
+
+    // The number of token requests for the key, striped so concurrent cache hits do not contend
+    private final LongAdder accesses = new LongAdder();
+
+    // The number of authentications retried with the other token of a rotation overlap
+    private final LongAdder rotationRetries = new LongAdder();
+
+    // The number of token requests at the last access rate sample
+    private long sampledAccesses;
+
+    // The time of the last access rate sample
+    private long sampledAt = System.currentTimeMillis();
+
+    // Whether the access rate has been sampled before
+    private boolean sampled;
+
+    // The smoothed number of token requests per second, updated by each sample
+    private volatile double accessRate;
+
+    /**
+     * Constructs a new RefreshStatus for the given key.
+     *
+     * @param region     the region of the key
+     * @param instanceId the instance ID of the key
+     * @param userName   the user name of the key
+     */
+    public RefreshStatus(String region, String instanceId, String userName) {
+        this.region = region;
+        this.instanceId = instanceId;
+        this.userName = userName;
+    }
+
+    /**
+     * Records a token successfully requested from CAM.
+     */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /**
+     * Records a failed token request.
+     *
+     * @param errorCode the error code of the failure
+     */
+    public void recordFailure(String errorCode) {
+        lastErrorCode = errorCode;
+        consecutiveFailures.incrementAndGet();
+    }
+
+    /**
+     * Records a token request for the key. It is called on every request, including cache hits.
+     */
+    public void recordAccess() {
+        accesses.increment();
+    }
+
+    /**
+     * Records an authentication retried with the other token of a rotation overlap.
+     */
+    public void recordRotationRetry() {
+        rotationRetries.increment();
+    }
+
+    /**
+     * Returns the number of authentications retried with the other token of a rotation overlap.
+     *
+     * @return the number of rotation retries
+     */
+    public long getRotationRetries() {
+        return rotationRetries.sum();
+    }
+
+    /**
+     * Updates the smoothed access rate with the token requests since the last sample.
+     *
+     * @param now the current time in milliseconds
+     * @return the updated access rate in requests per second
+     */
+    public synchronized double sampleAccessRate(long now) {
+        long elapsed = now - sampledAt;
+        if (elapsed <= 0) {
+            return accessRate;
+        }
+        long total = accesses.sum();
+        double rate = (total - sampledAccesses) * 1000.0 / elapsed;
+        accessRate = sampled ? RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * accessRate : rate;
+        sampled = true;
+        sampledAccesses = total;
+        sampledAt = now;
+        return accessRate;
+    }
+
+    /**
+     * Returns the access rate of the last sample.
+     *
+     * @return the access rate in requests per second
+     */
+    public double getAccessRate() {
+        return accessRate;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public String getLastErrorCode() {
+        return lastErrorCode;
+    }
+}
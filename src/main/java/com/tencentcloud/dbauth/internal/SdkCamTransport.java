@@ -0,0 +1,66 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloudapi.cam.v20190116.CamClient;
+import com.tencentcloudapi.cam.v20190116.models.AuthToken;
+import com.tencentcloudapi.cam.v20190116.models.BuildDataFlowAuthTokenRequest;
+import com.tencentcloudapi.cam.v20190116.models.BuildDataFlowAuthTokenResponse;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.common.profile.HttpProfile;
+
+/**
+ * SdkCamTransport calls CAM through the {@link CamClient} of tencentcloud-sdk-java.
+ * <p>
+ * The HTTP timeouts are capped to the deadline only when the SDK creates the client profile, a client profile
+ * passed in by the caller is never modified.
+ * </p>
+ */
+public final class SdkCamTransport implements CamTransport {
+    // The read and write timeout in seconds used when no client profile is set
+    private final int httpTimeout;
+
+    /**
+     * Constructs a new SdkCamTransport with the given configuration.
+     *
+     * @param config the configuration
+     */
+    public SdkCamTransport(DBAuthConfig config) {
+        this.httpTimeout = config.httpTimeout();
+    }
+
+    @Override
+    public AuthTokenResponse buildDataFlowAuthToken(GenerateAuthenticationTokenRequest request, Deadline deadline)
+            throws TencentCloudSDKException {
+        BuildDataFlowAuthTokenRequest req = new BuildDataFlowAuthTokenRequest();
+        req.setResourceId(request.instanceId());
+        req.setResourceRegion(request.region());
+        req.setResourceAccount(request.userName());
+
+        CamClient client;
+        if (request.clientProfile() != null) {
+            client = new CamClient(request.credential(), request.region(), request.clientProfile());
+        } else {
+            client = new CamClient(request.credential(), request.region());
+            HttpProfile httpProfile = client.getClientProfile().getHttpProfile();
+            httpProfile.setConnTimeout(deadline.capSeconds(httpProfile.getConnTimeout()));
+            httpProfile.setWriteTimeout(deadline.capSeconds(httpTimeout)); // default 0
+            httpProfile.setReadTimeout(deadline.capSeconds(httpTimeout));  // default 0
+        }
+
+        BuildDataFlowAuthTokenResponse response = client.BuildDataFlowAuthToken(req);
+        if (response == null) {
+            return null;
+        }
+        AuthToken credentials = response.getCredentials();
+        if (credentials == null) {
+            return new AuthTokenResponse(response.getRequestId(), null, 0, 0);
+        }
+        return new AuthTokenResponse(response.getRequestId(), credentials.getToken(),
+                toLong(credentials.getCurrentTime()), toLong(credentials.getNextRotationTime()));
+    }
+
+    private static long toLong(Long value) {
+        return value != null ? value : 0;
+    }
+}
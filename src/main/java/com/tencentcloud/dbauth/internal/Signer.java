@@ -1,47 +1,59 @@
 package com.tencentcloud.dbauth.internal;
 
-import com.tencentcloud.dbauth.model.AuthTokenInfoOuterClass;
+import com.tencentcloud.dbauth.TokenTimeoutException;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
 import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
-import com.tencentcloudapi.cam.v20190116.CamClient;
+import com.tencentcloud.dbauth.model.TokenEvent;
 import com.tencentcloudapi.cam.v20190116.CamErrorCode;
-import com.tencentcloudapi.cam.v20190116.models.AuthToken;
-import com.tencentcloudapi.cam.v20190116.models.BuildDataFlowAuthTokenRequest;
-import com.tencentcloudapi.cam.v20190116.models.BuildDataFlowAuthTokenResponse;
 import com.tencentcloudapi.common.exception.TencentCloudSDKException;
-import com.tencentcloudapi.common.profile.HttpProfile;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Base64;
-import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Signer is a utility class that provides methods for generating and updating authentication tokens.
  */
 public final class Signer {
     private static final Logger log = LoggerFactory.getLogger(Signer.class);
-    // The token cache to store the authentication token
-    private static final TokenCache TOKEN_CACHE = new TokenCache();
-
-    // The timer manager to schedule the token update
-    private static final TimerManager TIMER_MANAGER = new TimerManager();
-
-    // The interval to update the token in milliseconds
-    private static final long TOKEN_UPDATE_INTERVAL = 5 * 1000;
-    // The request to generate the authentication token
-    private final GenerateAuthenticationTokenRequest request;
+    // The format of the token expiry in debug logs, thread-safe so it is shared by all refreshes
+    private static final DateTimeFormatter EXPIRY_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    // The access rate in requests per second assumed for keys that are not used, so they are ordered by expiry
+    private static final double MIN_ACCESS_RATE = 0.001;
+    // The time to expiry in milliseconds below which keys are ordered by access rate only
+    private static final long MIN_TIME_TO_EXPIRY = 1000;
+    // The shared cache, scheduler, CAM transport and listeners
+    private final SignerContext context;
+    // The configuration of the context
+    private final DBAuthConfig config;
+    // The request to generate the authentication token, replaced by equal requests with another client profile
+    private volatile GenerateAuthenticationTokenRequest request;
     // The authentication key
     private final String authKey;
+    // The refresh status of the key
+    private final RefreshStatus status;
 
 
     /**
-     * Constructs a new Signer with the provided request.
+     * Constructs a new Signer with the provided context and request.
      *
+     * @param context the context holding the cache, scheduler and CAM transport
      * @param request the request containing the necessary information to generate an authentication token
      */
-    public Signer(GenerateAuthenticationTokenRequest request) {
+    public Signer(SignerContext context, GenerateAuthenticationTokenRequest request) {
+        this.context = context;
+        this.config = context.getConfig();
         this.request = request;
 
         // Generate the authentication key
@@ -54,16 +66,75 @@ public final class Signer {
                 + request.credential().getSecretId();
 
         this.authKey = Base64.getEncoder().encodeToString(key.getBytes());
+        this.status = context.getRefreshStatus(authKey, request);
     }
 
     /**
      * Returns the delay for the next token update.
+     * <p>
+     * The delay is shortened by a random share so that the refreshes of keys registered at the same time,
+     * e.g. after a deploy, drift apart instead of hitting CAM in bursts.
+     * </p>
      *
      * @param remainingTimeBeforeExpiry the remaining time before the token expires
      * @return the delay for the next token update
      */
-    private static long getDelayForNextTokenUpdate(long remainingTimeBeforeExpiry) {
-        return Math.min(remainingTimeBeforeExpiry, TOKEN_UPDATE_INTERVAL);
+    private long getDelayForNextTokenUpdate(long remainingTimeBeforeExpiry) {
+        long delay = Math.min(remainingTimeBeforeExpiry, config.tokenUpdateInterval());
+        if (delay <= 0) {
+            return delay;
+        }
+        return delay - (long) (ThreadLocalRandom.current().nextDouble() * delay * config.refreshJitterRatio());
+    }
+
+    /**
+     * Returns the key of the token, derived from the region, instance, user and secret ID of the request.
+     *
+     * @return the authentication key
+     */
+    public String getAuthKey() {
+        return authKey;
+    }
+
+    public GenerateAuthenticationTokenRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Replaces the request of this signer with an equal one if it has another client profile, so the following
+     * CAM requests use the profile of the latest caller.
+     *
+     * @param request the request equal to the request of this signer
+     */
+    public void updateRequest(GenerateAuthenticationTokenRequest request) {
+        if (this.request.clientProfile() != request.clientProfile()) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * Records a token request for this signer's key, so its refreshes can be prioritized by usage.
+     */
+    public void recordAccess() {
+        status.recordAccess();
+    }
+
+    /**
+     * Returns the priority of the refresh of this signer's key when refresh capacity is limited.
+     * <p>
+     * The priority is the access rate divided by the time left until the token expires, so a frequently used
+     * key is refreshed before a rarely used one, and among keys used alike the one that expires first.
+     * Keys that are not used at all still count with a small rate, so they are ordered by expiry.
+     * </p>
+     *
+     * @return the refresh priority, higher runs first
+     */
+    private double getRefreshPriority() {
+        long now = System.currentTimeMillis();
+        double accessRate = status.sampleAccessRate(now);
+        Token token = context.getTokenCache().getAuthToken(authKey);
+        long timeToExpiry = token != null ? token.getExpires() - now : 0;
+        return (accessRate + MIN_ACCESS_RATE) / Math.max(timeToExpiry, MIN_TIME_TO_EXPIRY);
     }
 
     /**
@@ -72,7 +143,50 @@ public final class Signer {
      * @return the authentication token from the cache
      */
     public Token getAuthTokenFromCache() {
-        return TOKEN_CACHE.getAuthToken(authKey);
+        return context.getTokenCache().getAuthToken(authKey);
+    }
+
+    /**
+     * Returns the token replaced by the last rotation while its overlap window lasts.
+     *
+     * @return the previous token, or null if there is none
+     */
+    public Token getPreviousAuthTokenFromCache() {
+        return context.getTokenCache().getPreviousAuthToken(authKey);
+    }
+
+    /**
+     * Returns the other token of the rotation overlap to retry a failed authentication with, and counts the retry.
+     *
+     * @param failedToken the token the database rejected
+     * @return the previous token if the current one failed, the current token if the previous one failed,
+     * or null if there is no other token to retry with
+     */
+    public Token getRotationRetryToken(String failedToken) {
+        Token current = context.getTokenCache().getAuthToken(authKey);
+        Token previous = context.getTokenCache().getPreviousAuthToken(authKey);
+        if (current == null || previous == null || failedToken == null) {
+            return null;
+        }
+        Token retryToken;
+        if (failedToken.equals(current.getAuthToken())) {
+            retryToken = previous;
+        } else if (failedToken.equals(previous.getAuthToken())) {
+            retryToken = current;
+        } else {
+            return null;
+        }
+        status.recordRotationRetry();
+        return retryToken;
+    }
+
+    /**
+     * Returns the fallback token read from the local password file, without caching it.
+     *
+     * @return the fallback token, or null if there is none
+     */
+    public Token getFallbackToken() {
+        return context.getTokenCache().fallback(request);
     }
 
     /**
@@ -81,23 +195,111 @@ public final class Signer {
      * @throws TencentCloudSDKException if there is an error during the token generation
      */
     public void buildAuthToken() throws TencentCloudSDKException {
+        buildAuthToken(Deadline.none());
+    }
+
+    /**
+     * Builds the authentication token within the given deadline.
+     * <p>
+     * With a bounded deadline the token is requested on a separate thread and the caller waits at most until
+     * the deadline, even if CAM does not respect the HTTP timeouts. The request keeps running after a timeout
+     * and still updates the cache when it completes. Concurrent callers of the same key wait for one request,
+     * whose HTTP timeouts and retries are limited to the latest deadline of the callers.
+     * </p>
+     *
+     * @param deadline the deadline of the call
+     * @throws TokenTimeoutException    if the deadline passed before the token was built
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    public void buildAuthToken(Deadline deadline) throws TencentCloudSDKException {
+        if (!deadline.isBounded()) {
+            buildAuthTokenNow(deadline, true);
+            return;
+        }
+
+        InFlightRequest request = new InFlightRequest(deadline);
+        ConcurrentHashMap<String, InFlightRequest> inFlightRequests = context.getInFlightRequests();
+        InFlightRequest running = inFlightRequests.putIfAbsent(authKey, request);
+        CompletableFuture<Void> inFlight;
+        if (running != null) {
+            running.join(deadline);
+            inFlight = running.getFuture();
+        } else {
+            CompletableFuture<Void> future = request.getFuture();
+            inFlight = future;
+            try {
+                context.getFetchExecutor().execute(() -> {
+                    try {
+                        buildAuthTokenNow(request.getDeadline(), true);
+                        inFlightRequests.remove(authKey, request);
+                        future.complete(null);
+                    } catch (Throwable e) {
+                        inFlightRequests.remove(authKey, request);
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // The context was closed or the executor rejected the request, so it will never complete
+                inFlightRequests.remove(authKey, request);
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            inFlight.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Not recorded as a failure of the key, the request keeps running and logs its own failure
+            log.debug("Timed out while waiting for the authentication token request");
+            throw new TokenTimeoutException("Timed out while requesting the authentication token");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TokenTimeoutException("Interrupted while requesting the authentication token");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TencentCloudSDKException) {
+                throw (TencentCloudSDKException) e.getCause();
+            }
+            TencentCloudSDKException error = new TencentCloudSDKException(
+                    "Failed to build AuthToken, error: " + e.getCause(), "", CamErrorCode.INTERNALERROR.getValue());
+            logFailure(error);
+            throw error;
+        }
+    }
+
+    /**
+     * Builds the authentication token on the calling thread.
+     *
+     * @param deadline   the deadline the HTTP timeouts and retries are limited to
+     * @param foreground true if a caller is waiting for the token, false for a background refresh
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    private void buildAuthTokenNow(Deadline deadline, boolean foreground) throws TencentCloudSDKException {
         log.debug("Building authentication token for key");
 
         try {
-            // 1. Request the authentication token
-            Token token = getAuthToken();
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            Date date = new Date(token.getExpires());
-            log.debug("Successfully get the authentication token, expiry: {}", sdf.format(date));
+            // 1. Request the authentication token, or take it from the shared store
+            Token token = getSharedOrNewAuthToken(deadline, foreground);
+            if (log.isDebugEnabled()) {
+                log.debug("Successfully get the authentication token, expiry: {}",
+                        EXPIRY_FORMAT.format(Instant.ofEpochMilli(token.getExpires())));
+            }
+            if (token.getOrigin() == Token.Origin.CAM) {
+                // A token from the shared store says nothing about this client's CAM requests
+                status.recordSuccess();
+                logSuccess();
+            }
             setTokenAndUpdateTask(token);
         } catch (TencentCloudSDKException e) {
+            status.recordFailure(e.getErrorCode());
+            logFailure(e);
+
             // 2. If the error code requires user notification, throw the exception
             if (ErrorCodeMatcher.isUserNotificationRequired(e.getErrorCode())) {
                 throw e;
             }
 
             // 3. If the token generation fails, use the fallback token
-            Token fallbackToken = TOKEN_CACHE.fallback(request);
+            Token fallbackToken = context.getTokenCache().fallback(request);
             if (fallbackToken != null) {
                 log.info("Using the fallback token");
                 setTokenAndUpdateTask(fallbackToken);
@@ -108,16 +310,122 @@ public final class Signer {
         }
     }
 
+    /**
+     * Logs a failed token request, unless the same failure of this key was logged within the failure log interval.
+     *
+     * @param e the exception of the failed request
+     */
+    private void logFailure(TencentCloudSDKException e) {
+        long suppressed = context.getFailureLog().recordFailure(authKey, e.getErrorCode(), System.currentTimeMillis());
+        if (suppressed == 0) {
+            log.error("Failed to request the authentication token, region: {}, instanceId: {}, userName: {}",
+                    request.region(), request.instanceId(), request.userName(), e);
+        } else if (suppressed > 0) {
+            log.error("Failed to request the authentication token, region: {}, instanceId: {}, userName: {}," +
+                            " error: {}, {} similar failures suppressed",
+                    request.region(), request.instanceId(), request.userName(), e.toString(), suppressed);
+        }
+    }
+
+    /**
+     * Logs that a token was requested successfully after failures.
+     */
+    private void logSuccess() {
+        long failures = context.getFailureLog().recordSuccess(authKey, System.currentTimeMillis());
+        if (failures > 0) {
+            log.info("Requested the authentication token after {} failures, region: {}, instanceId: {}, userName: {}",
+                    failures, request.region(), request.instanceId(), request.userName());
+        }
+    }
+
     /**
      * Sets the authentication token and updates the token update task.
      *
      * @param token the authentication token
      */
     private void setTokenAndUpdateTask(Token token) {
-        TOKEN_CACHE.setAuthToken(authKey, token);
+        Token previousToken = context.getTokenCache().setAuthToken(authKey, token);
+        if (previousToken != null && !StringUtils.equals(previousToken.getAuthToken(), token.getAuthToken())) {
+            context.getEventPublisher().clearExpiring(authKey);
+            publishTokenEvent(TokenEvent.Type.ROTATED, token);
+        }
+        publishIfExpiring(token);
         updateAuthTokenTask(token.getExpires());
     }
 
+    /**
+     * Publishes an EXPIRING event once per token when its remaining lifetime drops below the threshold.
+     *
+     * @param token the cached authentication token
+     */
+    private void publishIfExpiring(Token token) {
+        if (token == null || !context.getEventPublisher().hasListeners()) {
+            return;
+        }
+        if (token.getExpires() - System.currentTimeMillis() > config.tokenExpiringThreshold()) {
+            return;
+        }
+        if (context.getEventPublisher().markExpiring(authKey, token)) {
+            publishTokenEvent(TokenEvent.Type.EXPIRING, token);
+        }
+    }
+
+    /**
+     * Publishes a token event for this signer's key.
+     *
+     * @param type  the event type
+     * @param token the token the event refers to, or null if there is none
+     */
+    private void publishTokenEvent(TokenEvent.Type type, Token token) {
+        if (!context.getEventPublisher().hasListeners()) {
+            return;
+        }
+        context.getEventPublisher().publish(TokenEvent.builder()
+                .type(type)
+                .region(request.region())
+                .instanceId(request.instanceId())
+                .userName(request.userName())
+                .authToken(token != null ? token.getAuthToken() : null)
+                .expires(token != null ? token.getExpires() : 0)
+                .build());
+    }
+
+    /**
+     * Returns the authentication token from the shared store if a client of another process refreshes the key,
+     * or else requests it from CAM and stores it for the other clients.
+     *
+     * @param deadline   the deadline the HTTP timeouts and retries are limited to
+     * @param foreground true if a caller is waiting for the token, false for a background refresh
+     * @return the authentication token
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    private Token getSharedOrNewAuthToken(Deadline deadline, boolean foreground) throws TencentCloudSDKException {
+        TokenCache tokenCache = context.getTokenCache();
+        if (!tokenCache.hasSharedStore()) {
+            return getAuthToken(deadline, foreground);
+        }
+
+        if (!tokenCache.tryAcquireRefreshLease(authKey)) {
+            // Another client refreshes the key, use its token unless it has expired
+            Token sharedToken = tokenCache.getSharedAuthToken(authKey);
+            if (sharedToken != null && sharedToken.getExpires() > System.currentTimeMillis()) {
+                log.debug("Using the authentication token from the shared store");
+                return sharedToken;
+            }
+        }
+
+        Token token;
+        try {
+            token = getAuthToken(deadline, foreground);
+        } catch (TencentCloudSDKException e) {
+            // Let another client try right away
+            tokenCache.releaseRefreshLease(authKey);
+            throw e;
+        }
+        tokenCache.putSharedAuthToken(authKey, token);
+        return token;
+    }
+
     /**
      * Returns the authentication token.
      *
@@ -125,44 +433,55 @@ public final class Signer {
      * @throws TencentCloudSDKException if there is an error during the token generation
      */
     public Token getAuthToken() throws TencentCloudSDKException {
-        BuildDataFlowAuthTokenResponse response = requestAuthToken();
+        return getAuthToken(Deadline.none(), true);
+    }
+
+    /**
+     * Returns the authentication token, giving up retries once the deadline has passed.
+     *
+     * @param deadline   the deadline the HTTP timeouts and retries are limited to
+     * @param foreground true if a caller is waiting for the token, false for a background refresh
+     * @return the authentication token
+     * @throws TencentCloudSDKException if there is an error during the token generation
+     */
+    private Token getAuthToken(Deadline deadline, boolean foreground) throws TencentCloudSDKException {
+        AuthTokenResponse response = requestAuthToken(deadline, foreground);
         String requestId = response != null ? response.getRequestId() : "";
         if (response == null) {
-            log.error("Failed to request AuthToken, response is null");
+            log.debug("Failed to request AuthToken, response is null");
             throw new TencentCloudSDKException(
                     "Failed to request AuthToken, response is null", requestId, CamErrorCode.INTERNALERROR.getValue());
         }
 
-        if (response.getCredentials() == null) {
-            log.error("Failed to request AuthToken, tokenResponse is null, requestId: {}", requestId);
+        if (response.getToken() == null) {
+            log.debug("Failed to request AuthToken, tokenResponse is null, requestId: {}", requestId);
             throw new TencentCloudSDKException(
                     "Failed to request AuthToken, tokenResponse is null",
                     requestId,
                     CamErrorCode.INTERNALERROR.getValue());
         }
-        AuthToken tokenResponse = response.getCredentials();
 
         // Decrypt the authToken
-        String encAuthToken = tokenResponse.getToken();
+        String encAuthToken = response.getToken();
         String authToken = null;
         try {
             authToken = decryptAuthToken(encAuthToken);
         } catch (Exception e) {
             String errorMsg = "Failed to decrypt AuthToken, requestId: " + requestId + ", error: " + e.getMessage();
-            log.error(errorMsg);
+            log.debug(errorMsg);
             throw new TencentCloudSDKException(errorMsg, requestId, CamErrorCode.INTERNALERROR.getValue());
         }
 
         if (StringUtils.isEmpty(authToken)) {
-            log.error("Failed to decrypt AuthToken, authToken is empty, requestId: {}", requestId);
+            log.debug("Failed to decrypt AuthToken, authToken is empty, requestId: {}", requestId);
             throw new TencentCloudSDKException(
                     "Failed to decrypt AuthToken, authToken is empty",
                     requestId,
                     CamErrorCode.INTERNALERROR.getValue());
         }
 
-        long camServerTime = tokenResponse.getCurrentTime();
-        long authTokenExpires = tokenResponse.getNextRotationTime();
+        long camServerTime = response.getCurrentTime();
+        long authTokenExpires = response.getNextRotationTime();
 
         // Calculate the expiry time of the authToken
         long expiry = expiry(camServerTime, authTokenExpires);
@@ -177,9 +496,8 @@ public final class Signer {
      * @throws TencentCloudSDKException if there is an error during the decryption
      */
     private String decryptAuthToken(String encAuthToken) throws Exception {
-        AuthTokenInfoOuterClass.AuthTokenInfo tokenInfo = AuthTokenParser.parseAuthToken(
+        return AuthTokenParser.parseAuthTokenPassword(
                 request.instanceId(), request.region(), request.userName(), encAuthToken);
-        return tokenInfo.getPassword();
     }
 
     /**
@@ -191,7 +509,7 @@ public final class Signer {
      */
     private long expiry(long camServerTime, long authTokenExpires) {
         if (authTokenExpires < camServerTime) {
-            return System.currentTimeMillis() + TOKEN_UPDATE_INTERVAL;
+            return System.currentTimeMillis() + config.tokenUpdateInterval();
         }
         return System.currentTimeMillis() + (authTokenExpires - camServerTime);
     }
@@ -199,39 +517,40 @@ public final class Signer {
     /**
      * Requests an authentication token from the server.
      *
+     * @param deadline   the deadline the HTTP timeouts and retries are limited to
+     * @param foreground true if a caller is waiting for the token, false for a background refresh
      * @return an optional containing the response with the authentication token and its expiry time
      */
-    private BuildDataFlowAuthTokenResponse requestAuthToken() throws TencentCloudSDKException {
-        BuildDataFlowAuthTokenRequest req = new BuildDataFlowAuthTokenRequest();
-        req.setResourceId(request.instanceId());
-        req.setResourceRegion(request.region());
-        req.setResourceAccount(request.userName());
-
-        CamClient client;
-        if (request.clientProfile() != null) {
-            client = new CamClient(request.credential(), request.region(), request.clientProfile());
-        } else {
-            client = new CamClient(request.credential(), request.region());
-            HttpProfile httpProfile = client.getClientProfile().getHttpProfile();
-            httpProfile.setWriteTimeout(30); // default 0
-            httpProfile.setReadTimeout(30);  // default 0
-        }
-
+    private AuthTokenResponse requestAuthToken(Deadline deadline, boolean foreground)
+            throws TencentCloudSDKException {
         TencentCloudSDKException lastException = null;
-        for (int i = 0; i < 3; i++) {
+        for (int i = 0; i < config.maxRetries(); i++) {
+            if (i > 0 && deadline.isExpired()) {
+                log.debug("Failed to request AuthToken, no time left to retry");
+                break;
+            }
+            if (i > 0 && Thread.currentThread().isInterrupted()) {
+                log.debug("Failed to request AuthToken, interrupted while retrying");
+                break;
+            }
+            if (!acquireCamPermit(deadline, foreground)) {
+                log.debug("Failed to request AuthToken, timed out waiting for the CAM rate limit");
+                lastException = new TokenTimeoutException("Timed out while waiting for the CAM rate limit");
+                break;
+            }
             try {
-                return client.BuildDataFlowAuthToken(req);
+                return context.getCamTransport().buildDataFlowAuthToken(request, deadline);
             } catch (TencentCloudSDKException e) {
                 lastException = e;
                 if (ErrorCodeMatcher.isUserNotificationRequired(e.getErrorCode())) {
-                    log.error("Failed to request AuthToken, error: {}", e.toString());
+                    log.debug("Failed to request AuthToken, error: {}", e.toString());
                     break;
                 } else {
-                    log.error("Failed to request AuthToken, Retry to request the token," +
+                    log.debug("Failed to request AuthToken, Retry to request the token," +
                             " TencentCloudSDKException: {}", e.toString());
                 }
             } catch (Exception e) {
-                log.error("Failed to request AuthToken, Retry to request the token, Exception: {}", e.toString());
+                log.debug("Failed to request AuthToken, Retry to request the token, Exception: {}", e.toString());
                 lastException = new TencentCloudSDKException(
                         "Failed to request AuthToken, error: " + e.getMessage(),
                         "",
@@ -242,6 +561,24 @@ public final class Signer {
         throw lastException;
     }
 
+    /**
+     * Acquires a permit of the CAM rate limiter.
+     *
+     * @param deadline   the deadline to wait until
+     * @param foreground true if a caller is waiting for the token, false for a background refresh
+     * @return true if a permit was acquired, false if the deadline passed first
+     * @throws TencentCloudSDKException if the thread was interrupted while waiting
+     */
+    private boolean acquireCamPermit(Deadline deadline, boolean foreground) throws TencentCloudSDKException {
+        try {
+            return context.getCamRateLimiter().acquire(foreground, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TencentCloudSDKException(
+                    "Interrupted while waiting for the CAM rate limit", "", CamErrorCode.INTERNALERROR.getValue());
+        }
+    }
+
     /**
      * Updates the authentication token task.
      *
@@ -256,18 +593,26 @@ public final class Signer {
         log.debug("Scheduling next token key update in {} ms", delayForNextTokenUpdate);
 
         // Save the timer for the next token update
-        TIMER_MANAGER.saveTimer(authKey, delayForNextTokenUpdate, () -> {
+        // Each region refreshes in its own bulkhead, so a slow region cannot starve the others,
+        // and within a region the frequently used keys closest to expiry are refreshed first
+        context.getTimerManager().saveTimer(authKey, request.region(), delayForNextTokenUpdate,
+                this::getRefreshPriority, () -> {
             try {
-                buildAuthToken();
+                buildAuthTokenNow(Deadline.none(), false);
             } catch (TencentCloudSDKException e) {
                 if (ErrorCodeMatcher.isUserNotificationRequired(e.getErrorCode())) {
                     // If a user notification is required, remove the token from the cache
-                    log.error("Failed to update the authentication token", e);
-                    TOKEN_CACHE.removeAuthToken(authKey);
+                    log.warn("Removing the authentication token after a failed update, region: {}, instanceId: {}," +
+                            " userName: {}, error: {}", request.region(), request.instanceId(), request.userName(),
+                            e.getErrorCode());
+                    context.getTokenCache().removeAuthToken(authKey);
+                    context.getEventPublisher().clearExpiring(authKey);
+                    publishTokenEvent(TokenEvent.Type.REVOKED, null);
                 } else {
                     // If an internal error occurs, try to update the token again
-                    log.error("Failed to update the authentication token, Retry to update the token", e);
-                    updateAuthTokenTask(System.currentTimeMillis() + TOKEN_UPDATE_INTERVAL);
+                    // The failure has been logged by buildAuthTokenNow, rate-limited per key
+                    publishIfExpiring(context.getTokenCache().getAuthToken(authKey));
+                    updateAuthTokenTask(System.currentTimeMillis() + config.tokenUpdateInterval());
                 }
             }
         });
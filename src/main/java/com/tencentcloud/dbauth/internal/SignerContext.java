@@ -0,0 +1,339 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.SharedTokenStore;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.TokenSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SignerContext holds the state that signers share: the configuration, the token cache, the refresh scheduler,
+ * the CAM transport and rate limiter, and the token event listeners.
+ */
+public final class SignerContext {
+    private static final Logger log = LoggerFactory.getLogger(SignerContext.class);
+
+    // The order of the token snapshots
+    private static final Comparator<TokenSnapshot> SNAPSHOT_ORDER = Comparator
+            .comparing(TokenSnapshot::region, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(TokenSnapshot::instanceId, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(TokenSnapshot::userName, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    // The configuration
+    private final DBAuthConfig config;
+
+    // The token cache to store the authentication token
+    private final TokenCache tokenCache;
+
+    // The timer manager to schedule the token update
+    private final TimerManager timerManager;
+
+    // The transport to call CAM
+    private final CamTransport camTransport;
+
+    // The rate limiter shared by all CAM requests of the context
+    private final RateLimiter camRateLimiter;
+
+    // The rate-limited log of failed token requests and shared store calls
+    private final FailureLog failureLog;
+
+    // The publisher to notify listeners about token changes
+    private final TokenEventPublisher eventPublisher = new TokenEventPublisher();
+
+    // The signer of each request, so a cache hit neither builds the key of the request nor allocates a signer
+    private final ConcurrentHashMap<GenerateAuthenticationTokenRequest, Signer> signers = new ConcurrentHashMap<>();
+
+    // The latest signer of each key, so the signer of an earlier credential of the key can be dropped
+    private final ConcurrentHashMap<String, Signer> signersByKey = new ConcurrentHashMap<>();
+
+    // The refresh status of every key a token was requested for
+    private final ConcurrentHashMap<String, RefreshStatus> refreshStatuses = new ConcurrentHashMap<>();
+
+    // The token requests with a deadline that are still running, so concurrent callers share one CAM call
+    private final ConcurrentHashMap<String, InFlightRequest> inFlightRequests = new ConcurrentHashMap<>();
+
+    // The executor for token requests with a deadline, created on first use
+    private volatile ExecutorService fetchExecutor;
+
+    // Whether the context has been closed
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new SignerContext with the given configuration.
+     *
+     * @param config the configuration
+     */
+    public SignerContext(DBAuthConfig config) {
+        this(config, newCamTransport(config), null);
+    }
+
+    /**
+     * Constructs a new SignerContext with the given configuration and CAM transport.
+     *
+     * @param config       the configuration
+     * @param camTransport the transport to call CAM
+     */
+    public SignerContext(DBAuthConfig config, CamTransport camTransport) {
+        this(config, camTransport, null);
+    }
+
+    /**
+     * Constructs a new SignerContext with the given configuration, CAM transport and shared token store.
+     *
+     * @param config       the configuration
+     * @param camTransport the transport to call CAM
+     * @param sharedStore  the store shared with the clients of other processes, or null if there is none
+     */
+    public SignerContext(DBAuthConfig config, CamTransport camTransport, SharedTokenStore sharedStore) {
+        this.config = config;
+        this.failureLog = new FailureLog(config.failureLogInterval());
+        this.tokenCache = new TokenCache(config, sharedStore, failureLog);
+        this.timerManager = new TimerManager(config);
+        this.camTransport = camTransport;
+        this.camRateLimiter = new RateLimiter(config.camQps());
+    }
+
+    /**
+     * Creates the CAM transport selected by the configuration.
+     *
+     * @param config the configuration
+     * @return the CAM transport
+     */
+    public static CamTransport newCamTransport(DBAuthConfig config) {
+        return config.camClient() == DBAuthConfig.CamClientType.LITE
+                ? new LiteCamTransport(config) : new SdkCamTransport(config);
+    }
+
+    public DBAuthConfig getConfig() {
+        return config;
+    }
+
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    public TimerManager getTimerManager() {
+        return timerManager;
+    }
+
+    public CamTransport getCamTransport() {
+        return camTransport;
+    }
+
+    public RateLimiter getCamRateLimiter() {
+        return camRateLimiter;
+    }
+
+    public FailureLog getFailureLog() {
+        return failureLog;
+    }
+
+    public TokenEventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+
+    /**
+     * Returns the signer of the given request, creating it on first use.
+     * <p>
+     * Equal requests share one signer, so repeated token requests are served from the cache with map lookups
+     * only. A new client profile is passed on to the signer, and a new credential for the same key replaces
+     * the signer of the old credential.
+     * </p>
+     *
+     * @param request the request to generate the authentication token
+     * @return the signer of the request
+     */
+    public Signer getSigner(GenerateAuthenticationTokenRequest request) {
+        Signer signer = signers.get(request);
+        if (signer != null) {
+            signer.updateRequest(request);
+            return signer;
+        }
+        Signer created = new Signer(this, request);
+        signer = signers.putIfAbsent(request, created);
+        if (signer != null) {
+            signer.updateRequest(request);
+            return signer;
+        }
+        // Drop the signer of the earlier credential of the key, e.g. before a secret key rotation
+        Signer previous = signersByKey.put(created.getAuthKey(), created);
+        if (previous != null) {
+            signers.remove(previous.getRequest(), previous);
+        }
+        return created;
+    }
+
+    /**
+     * Returns the refresh status of the given key, creating it on first use.
+     *
+     * @param key     the authentication key
+     * @param request the request the key was derived from
+     * @return the refresh status
+     */
+    public RefreshStatus getRefreshStatus(String key, GenerateAuthenticationTokenRequest request) {
+        RefreshStatus status = refreshStatuses.get(key);
+        if (status != null) {
+            return status;
+        }
+        return refreshStatuses.computeIfAbsent(key,
+                k -> new RefreshStatus(request.region(), request.instanceId(), request.userName()));
+    }
+
+    /**
+     * Returns a snapshot of the cached token and refresh state of every key.
+     * <p>
+     * The snapshot only reads the concurrent maps and volatile fields the refreshes write, so it neither blocks
+     * nor delays them. Keys refreshed while the snapshot is taken may be reported before or after the refresh.
+     * </p>
+     *
+     * @return the snapshots, sorted by region, instance ID and user name
+     */
+    public List<TokenSnapshot> getTokenSnapshots() {
+        long now = System.currentTimeMillis();
+        List<TokenSnapshot> snapshots = new ArrayList<>(refreshStatuses.size());
+        refreshStatuses.forEach((key, status) -> {
+            Token token = tokenCache.getAuthToken(key);
+            long remainingDelay = timerManager.getRemainingDelay(key);
+            TokenSnapshot.Builder builder = TokenSnapshot.builder()
+                    .region(status.getRegion())
+                    .instanceId(status.getInstanceId())
+                    .userName(status.getUserName())
+                    .source(source(token, now))
+                    .nextRefresh(remainingDelay >= 0 ? now + remainingDelay : 0)
+                    .consecutiveFailures(status.getConsecutiveFailures())
+                    .lastErrorCode(status.getLastErrorCode())
+                    .accessRate(status.getAccessRate())
+                    .rotationRetries(status.getRotationRetries());
+            if (token != null) {
+                builder.tokenAge(now - token.getIssuedAt()).expires(token.getExpires());
+            }
+            Token previous = tokenCache.getPreviousAuthToken(key);
+            if (previous != null) {
+                builder.previousTokenExpires(previous.getExpires());
+            }
+            snapshots.add(builder.build());
+        });
+        snapshots.sort(SNAPSHOT_ORDER);
+        return snapshots;
+    }
+
+    private static TokenSnapshot.Source source(Token token, long now) {
+        if (token == null) {
+            return TokenSnapshot.Source.NONE;
+        }
+        if (token.getExpires() <= now) {
+            return TokenSnapshot.Source.STALE;
+        }
+        switch (token.getOrigin()) {
+            case FALLBACK:
+                return TokenSnapshot.Source.FALLBACK;
+            case SHARED_STORE:
+                return TokenSnapshot.Source.SHARED_STORE;
+            default:
+                return TokenSnapshot.Source.CAM;
+        }
+    }
+
+    public ConcurrentHashMap<String, InFlightRequest> getInFlightRequests() {
+        return inFlightRequests;
+    }
+
+    /**
+     * Returns the executor for token requests with a deadline, creating it on first use.
+     *
+     * @return the fetch executor
+     */
+    public ExecutorService getFetchExecutor() {
+        ExecutorService executor = fetchExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("The context has been closed.");
+                }
+                executor = fetchExecutor;
+                if (executor == null) {
+                    executor = Executors.newCachedThreadPool(new ThreadFactory() {
+                        private final AtomicInteger counter = new AtomicInteger(0);
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r);
+                            thread.setDaemon(true); // Set the thread as a daemon thread
+                            thread.setName("TokenFetchThread-" + counter.incrementAndGet());
+                            return thread;
+                        }
+                    });
+                    fetchExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns whether the context has been closed.
+     *
+     * @return true after {@link #close(long, TimeUnit)}
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the context: cancels the scheduled refreshes, lets the running token requests complete within the
+     * timeout, interrupts those still running afterwards, and clears the cached tokens.
+     *
+     * @param timeout the maximum time to wait for the running token requests
+     * @param unit    the unit of the timeout
+     * @return true if all token requests completed within the timeout, false otherwise
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        ExecutorService executor;
+        synchronized (this) {
+            if (closed) {
+                return true;
+            }
+            closed = true;
+            executor = fetchExecutor;
+        }
+
+        Deadline deadline = Deadline.after(timeout, unit);
+        timerManager.shutdown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+
+        boolean drained;
+        try {
+            drained = timerManager.awaitTermination(deadline) && (executor == null
+                    || executor.awaitTermination(deadline.remainingMillis(), TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+        if (!drained) {
+            log.warn("Token requests did not complete within {} ms, interrupting them", unit.toMillis(timeout));
+            timerManager.shutdownNow();
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        tokenCache.clear();
+        signers.clear();
+        signersByKey.clear();
+        refreshStatuses.clear();
+        return drained;
+    }
+}
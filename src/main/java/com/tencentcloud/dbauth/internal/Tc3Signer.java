@@ -0,0 +1,134 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloudapi.common.Credential;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tc3Signer is a utility class that signs Tencent Cloud API 3.0 requests with TC3-HMAC-SHA256.
+ * <p>
+ * The signing key only depends on the secret key, the UTC date and the service, so it is derived once per day
+ * and reused for every request of that day instead of running three extra HMACs per request.
+ * </p>
+ */
+public final class Tc3Signer {
+    public static final String ALGORITHM = "TC3-HMAC-SHA256";
+    public static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final String SIGNED_HEADERS = "content-type;host;x-tc-action";
+    private static final String TERMINATOR = "tc3_request";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    // The format of the date in the credential scope, thread-safe so it is shared by all requests
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+            .withZone(ZoneOffset.UTC);
+
+    // The derived signing keys, keyed by secret ID and service
+    private final ConcurrentHashMap<String, SigningKey> signingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value of the Authorization header for a POST request to "/".
+     *
+     * @param credential the credential to sign with
+     * @param service    the service, e.g. "cam"
+     * @param host       the host the request is sent to
+     * @param action     the API action
+     * @param timestamp  the request timestamp in seconds, also sent as X-TC-Timestamp
+     * @param payload    the request body
+     * @return the Authorization header value
+     * @throws GeneralSecurityException if SHA-256 or HmacSHA256 is not available
+     */
+    public String authorization(Credential credential, String service, String host, String action,
+                                long timestamp, byte[] payload) throws GeneralSecurityException {
+        String date = utcDate(timestamp);
+        String canonicalRequest = "POST\n/\n\n"
+                + "content-type:" + CONTENT_TYPE + "\n"
+                + "host:" + host + "\n"
+                + "x-tc-action:" + action.toLowerCase() + "\n\n"
+                + SIGNED_HEADERS + "\n"
+                + sha256Hex(payload);
+        String credentialScope = date + "/" + service + "/" + TERMINATOR;
+        String stringToSign = ALGORITHM + "\n"
+                + timestamp + "\n"
+                + credentialScope + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+
+        byte[] signingKey = signingKey(credential, service, date);
+        String signature = hex(hmac256(signingKey, stringToSign));
+        return ALGORITHM + " Credential=" + credential.getSecretId() + "/" + credentialScope
+                + ", SignedHeaders=" + SIGNED_HEADERS + ", Signature=" + signature;
+    }
+
+    /**
+     * Returns the signing key of the given day, deriving it only if the cached one does not match.
+     *
+     * @param credential the credential to sign with
+     * @param service    the service
+     * @param date       the UTC date in yyyy-MM-dd format
+     * @return the signing key
+     * @throws GeneralSecurityException if HmacSHA256 is not available
+     */
+    byte[] signingKey(Credential credential, String service, String date) throws GeneralSecurityException {
+        String cacheKey = credential.getSecretId() + "/" + service;
+        SigningKey cached = signingKeys.get(cacheKey);
+        if (cached != null && cached.matches(credential.getSecretKey(), date)) {
+            return cached.key;
+        }
+
+        byte[] secretDate = hmac256(("TC3" + credential.getSecretKey()).getBytes(StandardCharsets.UTF_8), date);
+        byte[] secretService = hmac256(secretDate, service);
+        byte[] key = hmac256(secretService, TERMINATOR);
+        signingKeys.put(cacheKey, new SigningKey(credential.getSecretKey(), date, key));
+        return key;
+    }
+
+    private static String utcDate(long timestamp) {
+        return DATE_FORMAT.format(Instant.ofEpochSecond(timestamp));
+    }
+
+    private static byte[] hmac256(byte[] key, String msg) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_SHA256);
+        mac.init(new SecretKeySpec(key, HMAC_SHA256));
+        return mac.doFinal(msg.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256Hex(byte[] data) throws GeneralSecurityException {
+        return hex(MessageDigest.getInstance(Constants.SHA256).digest(data));
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] hexChars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hexChars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0f];
+            hexChars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0f];
+        }
+        return new String(hexChars);
+    }
+
+    /**
+     * A signing key derived for one secret key and day.
+     */
+    private static final class SigningKey {
+        private final String secretKey;
+        private final String date;
+        private final byte[] key;
+
+        private SigningKey(String secretKey, String date, byte[] key) {
+            this.secretKey = secretKey;
+            this.date = date;
+            this.key = key;
+        }
+
+        private boolean matches(String secretKey, String date) {
+            return this.date.equals(date) && this.secretKey.equals(secretKey);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.tencentcloud.dbauth.internal;
 
+import com.tencentcloud.dbauth.model.DBAuthConfig;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -9,26 +13,31 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
 
 /**
  * TimerManager is a utility class that provides methods for managing timer tasks.
  */
 public final class TimerManager {
-    private static final int CORE_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    // The configuration of the scheduler pool size, the bulkhead concurrency and the maximum delay
+    private final DBAuthConfig config;
+    // A concurrent hash map to store the bulkhead of each partition
+    private final ConcurrentHashMap<String, Bulkhead> bulkheadMap = new ConcurrentHashMap<>();
     // A concurrent hash map to store ScheduledFuture objects associated with a key
     private final ConcurrentHashMap<String, ScheduledFuture<?>> timerMap = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService executor = Executors.
-            newScheduledThreadPool(CORE_POOL_SIZE, new ThreadFactory() {
-                private final AtomicInteger counter = new AtomicInteger(0);
+    // The scheduler is started by the first timer, so loading the SDK does not start any thread
+    private ScheduledExecutorService executor;
+    // Whether the timer manager has been shut down
+    private volatile boolean shutdown;
 
-                @Override
-                public Thread newThread(Runnable r) {
-                    Thread thread = new Thread(r);
-                    thread.setDaemon(true); // Set the thread as a daemon thread
-                    thread.setName("ScheduledThread-" + counter.incrementAndGet());
-                    return thread;
-                }
-            });
+    /**
+     * Constructs a new TimerManager with the given configuration.
+     *
+     * @param config the configuration
+     */
+    public TimerManager(DBAuthConfig config) {
+        this.config = config;
+    }
 
     /**
      * Saves a timer task that runs after a specified interval.
@@ -38,15 +47,109 @@ public final class TimerManager {
      * @param task  the task to run
      */
     public void saveTimer(String key, long delay, Runnable task) {
+        scheduleTimer(key, delay, task);
+    }
+
+    /**
+     * Saves a timer task that runs after a specified interval in the bulkhead of the given partition.
+     * <p>
+     * The scheduler threads only hand the task over to the bulkhead, so tasks of a partition that block,
+     * e.g. because CAM is slow in one region, do not delay the tasks of other partitions.
+     * </p>
+     *
+     * @param key       the key associated with the timer
+     * @param partition the partition the task belongs to, e.g. the region
+     * @param delay     the time in milliseconds to delay before the task is to be executed
+     * @param task      the task to run
+     */
+    public void saveTimer(String key, String partition, long delay, Runnable task) {
+        saveTimer(key, partition, delay, () -> 0, task);
+    }
+
+    /**
+     * Saves a timer task that runs after a specified interval in the bulkhead of the given partition.
+     * <p>
+     * The priority is evaluated when the timer is due. If all workers of the partition are busy at that time,
+     * the task waits behind the waiting tasks of the same or higher priority.
+     * </p>
+     *
+     * @param key       the key associated with the timer
+     * @param partition the partition the task belongs to, e.g. the region
+     * @param delay     the time in milliseconds to delay before the task is to be executed
+     * @param priority  the priority of the task in the bulkhead, higher runs first
+     * @param task      the task to run
+     */
+    public void saveTimer(String key, String partition, long delay, DoubleSupplier priority, Runnable task) {
+        if (shutdown) {
+            return;
+        }
+        if (StringUtils.isEmpty(partition)) {
+            scheduleTimer(key, delay, task);
+            return;
+        }
+        Bulkhead bulkhead = bulkheadMap.computeIfAbsent(partition,
+                name -> new Bulkhead(name, config.bulkheadConcurrency()));
+        scheduleTimer(key, delay, () -> bulkhead.execute(task, priority.getAsDouble()));
+    }
+
+    /**
+     * Returns the number of tasks waiting for a free worker, per partition.
+     *
+     * @return the queue depth of each partition, sorted by partition name
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> queueDepths = new TreeMap<>();
+        bulkheadMap.forEach((name, bulkhead) -> queueDepths.put(name, bulkhead.getQueueDepth()));
+        return Collections.unmodifiableMap(queueDepths);
+    }
+
+    /**
+     * Returns the time until the timer saved for the key is due.
+     *
+     * @param key the key associated with the timer
+     * @return the remaining delay in milliseconds, or -1 if no timer is pending for the key
+     */
+    public long getRemainingDelay(String key) {
+        ScheduledFuture<?> future = timerMap.get(key);
+        if (future == null || future.isDone()) {
+            return -1;
+        }
+        return Math.max(0, future.getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Returns the bulkhead of the given partition.
+     *
+     * @param partition the partition
+     * @return the bulkhead, or null if no task of the partition has been scheduled yet
+     */
+    public Bulkhead getBulkhead(String partition) {
+        return bulkheadMap.get(partition);
+    }
+
+    /**
+     * Schedules the task and replaces the timer previously saved for the key.
+     *
+     * @param key   the key associated with the timer
+     * @param delay the time in milliseconds to delay before the task is to be executed
+     * @param task  the task to run
+     */
+    private void scheduleTimer(String key, long delay, Runnable task) {
         if (StringUtils.isEmpty(key)) {
             return;
         }
 
-        if (delay <= 0 || delay > Constants.MAX_DELAY) {
+        if (delay <= 0 || delay > config.maxDelay()) {
             return;
         }
 
         synchronized (this) {
+            if (shutdown) {
+                return;
+            }
+            if (executor == null) {
+                executor = newScheduledExecutor(config.schedulerPoolSize());
+            }
             ScheduledFuture<?> newFuture = executor.schedule(task, delay, TimeUnit.MILLISECONDS);
 
             // If a timer with the same key exists, cancel it and remove it from the map
@@ -58,4 +161,85 @@ public final class TimerManager {
             timerMap.put(key, newFuture);
         }
     }
+
+    /**
+     * Cancels all timers and stops the scheduler and the bulkheads. Refreshes that are already running complete,
+     * refreshes waiting for a free worker are dropped, and timers saved afterwards are ignored.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            timerMap.forEach((key, future) -> future.cancel(false));
+            timerMap.clear();
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        bulkheadMap.values().forEach(Bulkhead::shutdown);
+    }
+
+    /**
+     * Interrupts the refreshes that are still running after a shutdown.
+     */
+    public void shutdownNow() {
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        bulkheadMap.values().forEach(Bulkhead::shutdownNow);
+    }
+
+    /**
+     * Waits until the running refreshes have completed after a shutdown.
+     *
+     * @param deadline the deadline to wait until
+     * @return true if all refreshes completed, false if the deadline passed first
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean awaitTermination(Deadline deadline) throws InterruptedException {
+        ScheduledExecutorService scheduler;
+        synchronized (this) {
+            scheduler = executor;
+        }
+        if (scheduler != null && !scheduler.awaitTermination(deadline.remainingMillis(), TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        for (Bulkhead bulkhead : bulkheadMap.values()) {
+            if (!bulkhead.awaitTermination(deadline)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the timer manager has been shut down.
+     *
+     * @return true after {@link #shutdown()}
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Creates the executor that runs the timers. Its threads only hand due tasks over to the bulkheads,
+     * so a small pool is enough.
+     *
+     * @param corePoolSize the number of scheduler threads
+     * @return the scheduled executor
+     */
+    private static ScheduledExecutorService newScheduledExecutor(int corePoolSize) {
+        return Executors.newScheduledThreadPool(corePoolSize, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r);
+                thread.setDaemon(true); // Set the thread as a daemon thread
+                thread.setName("ScheduledThread-" + counter.incrementAndGet());
+                return thread;
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -10,15 +10,34 @@ public final class Token {
     // The expiration time of the token
     private final long expires;
 
+    // The time the token was obtained
+    private final long issuedAt;
+
+    // Where the token was obtained
+    private final Origin origin;
+
     /**
      * Constructs a new Token with the given authentication token string and expiration time.
      *
      * @param authToken the authentication token string
      * @param expires   the expiration time of the token
      */
-    public Token(String authToken, Long expires) {
+    public Token(String authToken, long expires) {
+        this(authToken, expires, Origin.CAM);
+    }
+
+    /**
+     * Constructs a new Token with the given authentication token string, expiration time and origin.
+     *
+     * @param authToken the authentication token string
+     * @param expires   the expiration time of the token
+     * @param origin    where the token was obtained
+     */
+    public Token(String authToken, long expires, Origin origin) {
         this.authToken = authToken;
         this.expires = expires;
+        this.issuedAt = System.currentTimeMillis();
+        this.origin = origin;
     }
 
     /**
@@ -35,7 +54,46 @@ public final class Token {
      *
      * @return the expiration time of the token
      */
-    public Long getExpires() {
+    public long getExpires() {
         return expires;
     }
+
+    /**
+     * Returns the time the token was obtained.
+     *
+     * @return the time the token was obtained in milliseconds since the epoch
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Returns whether the token was read from the local password file.
+     *
+     * @return true for a fallback token, false for a token requested from CAM
+     */
+    public boolean isFallback() {
+        return origin == Origin.FALLBACK;
+    }
+
+    /**
+     * Returns where the token was obtained.
+     *
+     * @return the origin of the token
+     */
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Where a token was obtained.
+     */
+    public enum Origin {
+        // Requested from CAM by this process
+        CAM,
+        // Taken from the shared store, requested from CAM by a client of another process
+        SHARED_STORE,
+        // Read from the local password file
+        FALLBACK
+    }
 }
\ No newline at end of file
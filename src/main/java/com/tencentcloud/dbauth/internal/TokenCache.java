@@ -1,6 +1,9 @@
 package com.tencentcloud.dbauth.internal;
 
+import com.tencentcloud.dbauth.SharedTokenStore;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
 import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.SharedToken;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,19 +12,74 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TokenCache is a utility class that provides methods for storing and retrieving authentication tokens.
+ * <p>
+ * The tokens are kept in an in-process map (L1), which is read without locks. If a {@link SharedTokenStore} is
+ * set, the tokens requested from CAM are also kept there (L2) and the refresh of each key is elected through
+ * the leases of the store.
+ * </p>
  */
 public final class TokenCache {
     private static final Logger log = LoggerFactory.getLogger(TokenCache.class);
+    // The suffix of the failure log keys of shared store failures, so they are limited apart from CAM failures
+    private static final String SHARED_STORE_FAILURE_SUFFIX = "#sharedStore";
+    // The prefix of the error codes of shared store failures, followed by the exception class
+    private static final String SHARED_STORE_ERROR_PREFIX = "SharedStoreError.";
 
-    private static final long MAX_PASSWORD_SIZE = 200;
+    // The configuration of the maximum password file size, the fallback token lifetime and the overlap window
+    private final DBAuthConfig config;
 
     // A concurrent hash map to store tokens associated with a key
     private final ConcurrentHashMap<String, Token> tokenMap = new ConcurrentHashMap<>();
 
+    // The tokens replaced by a rotation, each expiring at the end of its overlap window
+    private final ConcurrentHashMap<String, Token> previousTokenMap = new ConcurrentHashMap<>();
+
+    // The store shared with the clients of other processes, or null if there is none
+    private final SharedTokenStore sharedStore;
+
+    // The owner name of this cache's refresh leases
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    // The rate-limited log of the shared store failures
+    private final FailureLog failureLog;
+
+    /**
+     * Constructs a new TokenCache with the given configuration.
+     *
+     * @param config the configuration
+     */
+    public TokenCache(DBAuthConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Constructs a new TokenCache with the given configuration and shared store.
+     *
+     * @param config      the configuration
+     * @param sharedStore the store shared with the clients of other processes, or null if there is none
+     */
+    public TokenCache(DBAuthConfig config, SharedTokenStore sharedStore) {
+        this(config, sharedStore, new FailureLog(config.failureLogInterval()));
+    }
+
+    /**
+     * Constructs a new TokenCache with the given configuration, shared store and failure log.
+     *
+     * @param config      the configuration
+     * @param sharedStore the store shared with the clients of other processes, or null if there is none
+     * @param failureLog  the log the shared store failures are limited through
+     */
+    public TokenCache(DBAuthConfig config, SharedTokenStore sharedStore, FailureLog failureLog) {
+        this.config = config;
+        this.sharedStore = sharedStore;
+        this.failureLog = failureLog;
+    }
+
     /**
      * Returns the authentication token associated with the given key.
      *
@@ -34,24 +92,155 @@ public final class TokenCache {
 
     /**
      * Saves the authentication token associated with the given key.
+     * <p>
+     * If the token replaces a token with a different password, the replaced token is kept as the previous token
+     * of the key for the overlap window, see {@link #getPreviousAuthToken(String)}.
+     * </p>
      *
      * @param key   the key associated with the token
      * @param token the authentication token
+     * @return the token previously associated with the key, or null if there was none
      */
-    public void setAuthToken(String key, Token token) {
+    public Token setAuthToken(String key, Token token) {
         if (StringUtils.isEmpty(key) || token == null) {
-            return;
+            return null;
+        }
+        Token previous = tokenMap.put(key, token);
+        if (previous != null && config.tokenOverlapWindow() > 0
+                && !StringUtils.equals(previous.getAuthToken(), token.getAuthToken())) {
+            previousTokenMap.put(key, new Token(previous.getAuthToken(),
+                    System.currentTimeMillis() + config.tokenOverlapWindow(), previous.getOrigin()));
         }
-        tokenMap.put(key, token);
+        return previous;
     }
 
     /**
-     * Removes the authentication token associated with the given key.
+     * Returns the token replaced by the last rotation of the given key, while its overlap window lasts.
+     *
+     * @param key the key associated with the token
+     * @return the previous token, expiring at the end of the overlap window, or null if there is none
+     */
+    public Token getPreviousAuthToken(String key) {
+        Token previous = previousTokenMap.get(key);
+        if (previous == null) {
+            return null;
+        }
+        if (previous.getExpires() <= System.currentTimeMillis()) {
+            previousTokenMap.remove(key, previous);
+            return null;
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the authentication token associated with the given key, together with its previous token.
      *
      * @param key the key associated with the token
      */
     public void removeAuthToken(String key) {
         tokenMap.remove(key);
+        previousTokenMap.remove(key);
+    }
+
+    /**
+     * Returns whether a shared store is set.
+     *
+     * @return true if the tokens are shared with the clients of other processes
+     */
+    public boolean hasSharedStore() {
+        return sharedStore != null;
+    }
+
+    /**
+     * Returns the token stored in the shared store under the given key.
+     *
+     * @param key the key associated with the token
+     * @return the shared token, or null if there is none or the store failed
+     */
+    public Token getSharedAuthToken(String key) {
+        try {
+            SharedToken sharedToken = sharedStore.get(key);
+            if (sharedToken == null || StringUtils.isEmpty(sharedToken.authToken())) {
+                return null;
+            }
+            return new Token(sharedToken.authToken(), sharedToken.expires(), Token.Origin.SHARED_STORE);
+        } catch (RuntimeException e) {
+            logStoreFailure("read the token from", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the token in the shared store under the given key.
+     *
+     * @param key   the key associated with the token
+     * @param token the token requested from CAM
+     */
+    public void putSharedAuthToken(String key, Token token) {
+        try {
+            sharedStore.put(key, SharedToken.builder()
+                    .authToken(token.getAuthToken())
+                    .expires(token.getExpires())
+                    .build());
+        } catch (RuntimeException e) {
+            logStoreFailure("write the token to", key, e);
+        }
+    }
+
+    /**
+     * Acquires the refresh lease of the given key for the refresh interval.
+     *
+     * @param key the key associated with the token
+     * @return true if this cache holds the lease, false if a client of another process holds it; true if the
+     * store failed, so the token is requested from CAM
+     */
+    public boolean tryAcquireRefreshLease(String key) {
+        try {
+            return sharedStore.tryAcquireRefreshLease(key, leaseOwner, config.tokenUpdateInterval());
+        } catch (RuntimeException e) {
+            logStoreFailure("acquire the refresh lease from", key, e);
+            return true;
+        }
+    }
+
+    /**
+     * Releases the refresh lease of the given key, so a client of another process can refresh the token.
+     *
+     * @param key the key associated with the token
+     */
+    public void releaseRefreshLease(String key) {
+        try {
+            sharedStore.releaseRefreshLease(key, leaseOwner);
+        } catch (RuntimeException e) {
+            logStoreFailure("release the refresh lease in", key, e);
+        }
+    }
+
+    /**
+     * Logs a failed call of the shared store, unless the same failure of the key was logged within the failure
+     * log interval. During a store outage every access of every key fails, like the CAM requests in an outage.
+     *
+     * @param action the failed action, completed by "the shared store"
+     * @param key    the key associated with the token
+     * @param e      the exception thrown by the store
+     */
+    private void logStoreFailure(String action, String key, RuntimeException e) {
+        long suppressed = failureLog.recordFailure(key + SHARED_STORE_FAILURE_SUFFIX,
+                SHARED_STORE_ERROR_PREFIX + e.getClass().getSimpleName(), System.currentTimeMillis());
+        if (suppressed == 0) {
+            log.error("Failed to {} the shared store", action, e);
+        } else if (suppressed > 0) {
+            log.error("Failed to {} the shared store, error: {}, {} similar failures suppressed",
+                    action, e.toString(), suppressed);
+        }
+    }
+
+    /**
+     * Removes all authentication tokens.
+     */
+    public void clear() {
+        tokenMap.clear();
+        previousTokenMap.clear();
     }
 
     /**
@@ -72,12 +261,13 @@ public final class TokenCache {
         if (Files.exists(inputFilePath)) {
             try {
                 log.info("file name: {}, file size: {}", inputFilePath, Files.size(inputFilePath));
-                // If the file size is 0 or the file size is greater than 200, skip the file
+                // If the file size is 0 or the file size is greater than the maximum, skip the file
                 if (Files.size(inputFilePath) == 0) {
                     return null;
                 }
-                if (Files.size(inputFilePath) > MAX_PASSWORD_SIZE) {
-                    log.error("The file size is greater than 200, skip the file: {}", inputFilePath);
+                if (Files.size(inputFilePath) > config.maxPasswordSize()) {
+                    log.error("The file size is greater than {}, skip the file: {}",
+                            config.maxPasswordSize(), inputFilePath);
                     return null;
                 }
                 // Read the password from the file
@@ -95,7 +285,7 @@ public final class TokenCache {
                 }
 
                 log.info("Reading the password from the file: {}", inputFilePath);
-                return new Token(password, System.currentTimeMillis() + Constants.MAX_DELAY);
+                return new Token(password, System.currentTimeMillis() + config.maxDelay(), Token.Origin.FALLBACK);
 
             } catch (Exception e) {
                 log.error("Failed to read the password from the file: {}", inputFilePath, e);
@@ -0,0 +1,103 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.TokenListener;
+import com.tencentcloud.dbauth.model.TokenEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * TokenEventPublisher is a utility class that dispatches token events to the registered listeners.
+ */
+public final class TokenEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(TokenEventPublisher.class);
+    // The expiry difference in milliseconds below which two tokens with the same password are the same token,
+    // as every refresh computes the expiry anew from the CAM server time
+    private static final long EXPIRY_TOLERANCE = 1000;
+
+    // The registered listeners, iterated without locking on every event
+    private final CopyOnWriteArrayList<TokenListener> listeners = new CopyOnWriteArrayList<>();
+
+    // The last token per key for which an EXPIRING event was published
+    private final ConcurrentHashMap<String, Token> expiringTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a listener. Registering the same listener twice has no effect.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(TokenListener listener) {
+        if (listener != null) {
+            listeners.addIfAbsent(listener);
+        }
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to unregister
+     */
+    public void removeListener(TokenListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns whether any listener is registered, so callers can skip building events nobody receives.
+     *
+     * @return true if at least one listener is registered
+     */
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Marks the token of the given key as announced to be expiring.
+     *
+     * @param key   the key associated with the token
+     * @param token the expiring token
+     * @return true if the token was not announced before, false otherwise
+     */
+    public boolean markExpiring(String key, Token token) {
+        Token announced = expiringTokens.put(key, token);
+        return announced == null || !isSameToken(announced, token);
+    }
+
+    /**
+     * Returns whether two token instances, e.g. from two refreshes, hold the same token.
+     *
+     * @param a the first token
+     * @param b the second token
+     * @return true if both have the same password and expiry
+     */
+    private static boolean isSameToken(Token a, Token b) {
+        return a.getAuthToken().equals(b.getAuthToken())
+                && Math.abs(a.getExpires() - b.getExpires()) < EXPIRY_TOLERANCE;
+    }
+
+    /**
+     * Forgets the expiring token of the given key.
+     *
+     * @param key the key associated with the token
+     */
+    public void clearExpiring(String key) {
+        expiringTokens.remove(key);
+    }
+
+    /**
+     * Publishes the event to all registered listeners. A failing listener does not prevent the others from
+     * receiving the event.
+     *
+     * @param event the event to publish
+     */
+    public void publish(TokenEvent event) {
+        for (TokenListener listener : listeners) {
+            try {
+                listener.onTokenEvent(event);
+            } catch (Exception e) {
+                log.error("Token listener failed to handle the {} event", event.type(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tencentcloud.dbauth.model;
+
+/**
+ * AuthenticationTokenPair holds the current authentication token and, for a short window after a rotation,
+ * the token it replaced. Connections opened around a rotation can fail with one of them and succeed with the
+ * other, so they can retry locally instead of requesting a new token from CAM.
+ */
+public final class AuthenticationTokenPair {
+    private final String current;
+    private final String previous;
+    private final long previousExpires;
+
+    private AuthenticationTokenPair(Builder builder) {
+        this.current = builder.current;
+        this.previous = builder.previous;
+        this.previousExpires = builder.previousExpires;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the current authentication token.
+     *
+     * @return the current token
+     */
+    public String current() {
+        return current;
+    }
+
+    /**
+     * Returns the token replaced by the last rotation.
+     *
+     * @return the previous token, or null if the overlap window has passed or there was no rotation
+     */
+    public String previous() {
+        return previous;
+    }
+
+    /**
+     * Returns the end of the overlap window of the previous token in milliseconds since the epoch.
+     *
+     * @return the end of the overlap window, or 0 if there is no previous token
+     */
+    public long previousExpires() {
+        return previousExpires;
+    }
+
+    public static final class Builder {
+        private String current;
+        private String previous;
+        private long previousExpires;
+
+        private Builder() {
+        }
+
+        public Builder current(String current) {
+            this.current = current;
+            return this;
+        }
+
+        public Builder previous(String previous) {
+            this.previous = previous;
+            return this;
+        }
+
+        public Builder previousExpires(long previousExpires) {
+            this.previousExpires = previousExpires;
+            return this;
+        }
+
+        public AuthenticationTokenPair build() {
+            return new AuthenticationTokenPair(this);
+        }
+    }
+}
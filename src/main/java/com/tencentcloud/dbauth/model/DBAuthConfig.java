@@ -0,0 +1,450 @@
+package com.tencentcloud.dbauth.model;
+
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * DBAuthConfig holds the tuning parameters of the token cache, the refresh scheduler, the retries and the
+ * HTTP calls to CAM.
+ * <p>
+ * Every parameter can also be set with a system property named {@code tencentcloud.dbauth.<name>}, e.g.
+ * {@code -Dtencentcloud.dbauth.tokenUpdateInterval=10000}, or an environment variable named
+ * {@code TENCENTCLOUD_DBAUTH_<NAME>}, e.g. {@code TENCENTCLOUD_DBAUTH_TOKEN_UPDATE_INTERVAL=10000}.
+ * System properties take precedence over environment variables, see {@link #load()}.
+ * </p>
+ */
+public final class DBAuthConfig {
+    public static final String PROPERTY_PREFIX = "tencentcloud.dbauth.";
+    public static final String ENV_PREFIX = "TENCENTCLOUD_DBAUTH_";
+
+    public static final long DEFAULT_TOKEN_UPDATE_INTERVAL = 5 * 1000;
+    public static final long DEFAULT_TOKEN_EXPIRING_THRESHOLD = 60 * 1000;
+    public static final long DEFAULT_TOKEN_OVERLAP_WINDOW = 30 * 1000;
+    public static final double DEFAULT_REFRESH_JITTER_RATIO = 0.2;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final int DEFAULT_HTTP_TIMEOUT = 30;
+    public static final int DEFAULT_SCHEDULER_POOL_SIZE = Math.min(2, Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_BULKHEAD_CONCURRENCY = Math.max(2, Runtime.getRuntime().availableProcessors());
+    public static final long DEFAULT_MAX_PASSWORD_SIZE = 200;
+    public static final long DEFAULT_MAX_DELAY = 24 * 60 * 60 * 1000;
+    public static final double DEFAULT_CAM_QPS = 0;
+    public static final long DEFAULT_FAILURE_LOG_INTERVAL = 60 * 1000;
+
+    private final long tokenUpdateInterval;
+    private final long tokenExpiringThreshold;
+    private final long tokenOverlapWindow;
+    private final double refreshJitterRatio;
+    private final int maxRetries;
+    private final int httpTimeout;
+    private final int schedulerPoolSize;
+    private final int bulkheadConcurrency;
+    private final long maxPasswordSize;
+    private final long maxDelay;
+    private final double camQps;
+    private final long failureLogInterval;
+    private final CamClientType camClient;
+
+    private DBAuthConfig(Builder builder) {
+        builder.checkInvalid();
+        this.tokenUpdateInterval = builder.tokenUpdateInterval;
+        this.tokenExpiringThreshold = builder.tokenExpiringThreshold;
+        this.tokenOverlapWindow = builder.tokenOverlapWindow;
+        this.refreshJitterRatio = builder.refreshJitterRatio;
+        this.maxRetries = builder.maxRetries;
+        this.httpTimeout = builder.httpTimeout;
+        this.schedulerPoolSize = builder.schedulerPoolSize;
+        this.bulkheadConcurrency = builder.bulkheadConcurrency;
+        this.maxPasswordSize = builder.maxPasswordSize;
+        this.maxDelay = builder.maxDelay;
+        this.camQps = builder.camQps;
+        this.failureLogInterval = builder.failureLogInterval;
+        this.camClient = builder.camClient;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the configuration with all parameters set to their defaults.
+     *
+     * @return the default configuration
+     */
+    public static DBAuthConfig defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns the defaults overridden by the environment variables and then by the system properties.
+     *
+     * @return the loaded configuration
+     * @throws IllegalArgumentException if a variable or property has an invalid value
+     */
+    public static DBAuthConfig load() {
+        return builder().fromEnvironment().fromSystemProperties().build();
+    }
+
+    /**
+     * Returns the maximum interval in milliseconds between two refreshes of a token.
+     *
+     * @return the token update interval
+     */
+    public long tokenUpdateInterval() {
+        return tokenUpdateInterval;
+    }
+
+    /**
+     * Returns the remaining lifetime in milliseconds below which a token is announced as expiring.
+     *
+     * @return the token expiring threshold
+     */
+    public long tokenExpiringThreshold() {
+        return tokenExpiringThreshold;
+    }
+
+    /**
+     * Returns the time in milliseconds the previous token is kept after a rotation, so connections can retry
+     * with it while the database still accepts it. 0 disables the overlap window.
+     *
+     * @return the token overlap window
+     */
+    public long tokenOverlapWindow() {
+        return tokenOverlapWindow;
+    }
+
+    /**
+     * Returns the maximum share of the update interval by which a refresh is brought forward at random.
+     *
+     * @return the refresh jitter ratio
+     */
+    public double refreshJitterRatio() {
+        return refreshJitterRatio;
+    }
+
+    /**
+     * Returns the number of attempts of a CAM request.
+     *
+     * @return the maximum number of attempts
+     */
+    public int maxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns the read and write timeout in seconds of the CAM requests, used when no client profile is set.
+     *
+     * @return the HTTP timeout
+     */
+    public int httpTimeout() {
+        return httpTimeout;
+    }
+
+    /**
+     * Returns the number of scheduler threads that dispatch due refreshes to the region bulkheads.
+     *
+     * @return the scheduler pool size
+     */
+    public int schedulerPoolSize() {
+        return schedulerPoolSize;
+    }
+
+    /**
+     * Returns the maximum number of refreshes of one region running at the same time.
+     * <p>
+     * The default matches the refresh pool of one thread per CPU used before the refreshes were partitioned by
+     * region, so a deployment with a single region refreshes as many keys at once as before. Idle workers are
+     * released, so regions without refreshes cost no threads.
+     * </p>
+     *
+     * @return the bulkhead concurrency
+     */
+    public int bulkheadConcurrency() {
+        return bulkheadConcurrency;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a fallback password file.
+     *
+     * @return the maximum password size
+     */
+    public long maxPasswordSize() {
+        return maxPasswordSize;
+    }
+
+    /**
+     * Returns the maximum delay in milliseconds of a scheduled refresh, also the lifetime of a fallback token.
+     *
+     * @return the maximum delay
+     */
+    public long maxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Returns the maximum number of CAM requests per second, 0 for no limit.
+     *
+     * @return the CAM requests per second
+     */
+    public double camQps() {
+        return camQps;
+    }
+
+    /**
+     * Returns the minimum time in milliseconds between two logged failures of a key, which is also the interval
+     * of the failure summaries. 0 logs every failure.
+     *
+     * @return the failure log interval
+     */
+    public long failureLogInterval() {
+        return failureLogInterval;
+    }
+
+    /**
+     * Returns the client used to call CAM.
+     *
+     * @return the CAM client type
+     */
+    public CamClientType camClient() {
+        return camClient;
+    }
+
+    /**
+     * The client used to call CAM.
+     */
+    public enum CamClientType {
+        /**
+         * The CamClient of tencentcloud-sdk-java.
+         */
+        SDK,
+        /**
+         * The built-in lightweight client, which does not load the CamClient, OkHttp and Gson classes.
+         */
+        LITE
+    }
+
+    public static final class Builder {
+        private long tokenUpdateInterval = DEFAULT_TOKEN_UPDATE_INTERVAL;
+        private long tokenExpiringThreshold = DEFAULT_TOKEN_EXPIRING_THRESHOLD;
+        private long tokenOverlapWindow = DEFAULT_TOKEN_OVERLAP_WINDOW;
+        private double refreshJitterRatio = DEFAULT_REFRESH_JITTER_RATIO;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private int httpTimeout = DEFAULT_HTTP_TIMEOUT;
+        private int schedulerPoolSize = DEFAULT_SCHEDULER_POOL_SIZE;
+        private int bulkheadConcurrency = DEFAULT_BULKHEAD_CONCURRENCY;
+        private long maxPasswordSize = DEFAULT_MAX_PASSWORD_SIZE;
+        private long maxDelay = DEFAULT_MAX_DELAY;
+        private double camQps = DEFAULT_CAM_QPS;
+        private long failureLogInterval = DEFAULT_FAILURE_LOG_INTERVAL;
+        private CamClientType camClient = CamClientType.SDK;
+
+        private Builder() {
+        }
+
+        public Builder tokenUpdateInterval(long tokenUpdateInterval) {
+            this.tokenUpdateInterval = tokenUpdateInterval;
+            return this;
+        }
+
+        public Builder tokenExpiringThreshold(long tokenExpiringThreshold) {
+            this.tokenExpiringThreshold = tokenExpiringThreshold;
+            return this;
+        }
+
+        public Builder tokenOverlapWindow(long tokenOverlapWindow) {
+            this.tokenOverlapWindow = tokenOverlapWindow;
+            return this;
+        }
+
+        public Builder refreshJitterRatio(double refreshJitterRatio) {
+            this.refreshJitterRatio = refreshJitterRatio;
+            return this;
+        }
+
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public Builder httpTimeout(int httpTimeout) {
+            this.httpTimeout = httpTimeout;
+            return this;
+        }
+
+        public Builder schedulerPoolSize(int schedulerPoolSize) {
+            this.schedulerPoolSize = schedulerPoolSize;
+            return this;
+        }
+
+        public Builder bulkheadConcurrency(int bulkheadConcurrency) {
+            this.bulkheadConcurrency = bulkheadConcurrency;
+            return this;
+        }
+
+        public Builder maxPasswordSize(long maxPasswordSize) {
+            this.maxPasswordSize = maxPasswordSize;
+            return this;
+        }
+
+        public Builder maxDelay(long maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder camQps(double camQps) {
+            this.camQps = camQps;
+            return this;
+        }
+
+        public Builder failureLogInterval(long failureLogInterval) {
+            this.failureLogInterval = failureLogInterval;
+            return this;
+        }
+
+        public Builder camClient(CamClientType camClient) {
+            this.camClient = camClient;
+            return this;
+        }
+
+        /**
+         * Overrides the parameters set in the system properties.
+         *
+         * @return the Builder object
+         * @throws IllegalArgumentException if a property has an invalid value
+         */
+        public Builder fromSystemProperties() {
+            return fromProperties(System.getProperties());
+        }
+
+        /**
+         * Overrides the parameters set in the given properties, named like the system properties.
+         *
+         * @param properties the properties
+         * @return the Builder object
+         * @throws IllegalArgumentException if a property has an invalid value
+         */
+        public Builder fromProperties(Properties properties) {
+            return apply(name -> properties.getProperty(PROPERTY_PREFIX + name));
+        }
+
+        /**
+         * Overrides the parameters set in the environment variables.
+         *
+         * @return the Builder object
+         * @throws IllegalArgumentException if a variable has an invalid value
+         */
+        public Builder fromEnvironment() {
+            return apply(name -> System.getenv(ENV_PREFIX + toEnvName(name)));
+        }
+
+        private Builder apply(Function<String, String> lookup) {
+            tokenUpdateInterval = parseLong(lookup, "tokenUpdateInterval", tokenUpdateInterval);
+            tokenExpiringThreshold = parseLong(lookup, "tokenExpiringThreshold", tokenExpiringThreshold);
+            tokenOverlapWindow = parseLong(lookup, "tokenOverlapWindow", tokenOverlapWindow);
+            refreshJitterRatio = parseDouble(lookup, "refreshJitterRatio", refreshJitterRatio);
+            maxRetries = (int) parseLong(lookup, "maxRetries", maxRetries);
+            httpTimeout = (int) parseLong(lookup, "httpTimeout", httpTimeout);
+            schedulerPoolSize = (int) parseLong(lookup, "schedulerPoolSize", schedulerPoolSize);
+            bulkheadConcurrency = (int) parseLong(lookup, "bulkheadConcurrency", bulkheadConcurrency);
+            maxPasswordSize = parseLong(lookup, "maxPasswordSize", maxPasswordSize);
+            maxDelay = parseLong(lookup, "maxDelay", maxDelay);
+            camQps = parseDouble(lookup, "camQps", camQps);
+            failureLogInterval = parseLong(lookup, "failureLogInterval", failureLogInterval);
+            String client = lookup.apply("camClient");
+            if (client != null && !client.trim().isEmpty()) {
+                try {
+                    camClient = CamClientType.valueOf(client.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid value of camClient: " + client, e);
+                }
+            }
+            return this;
+        }
+
+        private static long parseLong(Function<String, String> lookup, String name, long defaultValue) {
+            String value = lookup.apply(name);
+            if (value == null || value.trim().isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value of " + name + ": " + value, e);
+            }
+        }
+
+        private static double parseDouble(Function<String, String> lookup, String name, double defaultValue) {
+            String value = lookup.apply(name);
+            if (value == null || value.trim().isEmpty()) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value of " + name + ": " + value, e);
+            }
+        }
+
+        private static String toEnvName(String name) {
+            StringBuilder sb = new StringBuilder();
+            for (char c : name.toCharArray()) {
+                if (Character.isUpperCase(c)) {
+                    sb.append('_');
+                }
+                sb.append(Character.toUpperCase(c));
+            }
+            return sb.toString();
+        }
+
+        /**
+         * Check if the configuration is invalid.
+         *
+         * @throws IllegalArgumentException if the configuration is invalid
+         */
+        public void checkInvalid() {
+            if (tokenUpdateInterval <= 0) {
+                throw new IllegalArgumentException("The tokenUpdateInterval must be positive.");
+            }
+            if (tokenExpiringThreshold < 0) {
+                throw new IllegalArgumentException("The tokenExpiringThreshold must not be negative.");
+            }
+            if (tokenOverlapWindow < 0) {
+                throw new IllegalArgumentException("The tokenOverlapWindow must not be negative.");
+            }
+            if (refreshJitterRatio < 0 || refreshJitterRatio >= 1) {
+                throw new IllegalArgumentException("The refreshJitterRatio must be in [0, 1).");
+            }
+            if (maxRetries <= 0) {
+                throw new IllegalArgumentException("The maxRetries must be positive.");
+            }
+            if (httpTimeout < 0) {
+                throw new IllegalArgumentException("The httpTimeout must not be negative.");
+            }
+            if (schedulerPoolSize <= 0) {
+                throw new IllegalArgumentException("The schedulerPoolSize must be positive.");
+            }
+            if (bulkheadConcurrency <= 0) {
+                throw new IllegalArgumentException("The bulkheadConcurrency must be positive.");
+            }
+            if (maxPasswordSize <= 0) {
+                throw new IllegalArgumentException("The maxPasswordSize must be positive.");
+            }
+            if (maxDelay <= 0) {
+                throw new IllegalArgumentException("The maxDelay must be positive.");
+            }
+            if (camQps < 0) {
+                throw new IllegalArgumentException("The camQps must not be negative.");
+            }
+            if (failureLogInterval < 0) {
+                throw new IllegalArgumentException("The failureLogInterval must not be negative.");
+            }
+            if (camClient == null) {
+                throw new IllegalArgumentException("The camClient must be set.");
+            }
+        }
+
+        public DBAuthConfig build() {
+            return new DBAuthConfig(this);
+        }
+    }
+}
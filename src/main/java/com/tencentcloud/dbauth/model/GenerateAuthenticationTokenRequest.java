@@ -46,6 +46,41 @@ public final class GenerateAuthenticationTokenRequest {
         return clientProfile;
     }
 
+    /**
+     * Returns whether the given request asks for the same token with the same credential values, so the client
+     * can reuse the state it keeps for this request. The client profile is not compared, since callers often
+     * build a new one for every request.
+     *
+     * @param o the object to compare with
+     * @return true if the requests are equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GenerateAuthenticationTokenRequest)) {
+            return false;
+        }
+        GenerateAuthenticationTokenRequest that = (GenerateAuthenticationTokenRequest) o;
+        return StringUtils.equals(region, that.region)
+                && StringUtils.equals(instanceId, that.instanceId)
+                && StringUtils.equals(userName, that.userName)
+                && StringUtils.equals(credential.getSecretId(), that.credential.getSecretId())
+                && StringUtils.equals(credential.getSecretKey(), that.credential.getSecretKey())
+                && StringUtils.equals(credential.getToken(), that.credential.getToken());
+    }
+
+    @Override
+    public int hashCode() {
+        // Hashed without varargs, as it is computed on every token request
+        int result = region.hashCode();
+        result = 31 * result + instanceId.hashCode();
+        result = 31 * result + userName.hashCode();
+        result = 31 * result + credential.getSecretId().hashCode();
+        return result;
+    }
+
     public static final class Builder {
         private String region;
         private String instanceId;
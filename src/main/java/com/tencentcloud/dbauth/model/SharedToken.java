@@ -0,0 +1,55 @@
+package com.tencentcloud.dbauth.model;
+
+/**
+ * SharedToken is an authentication token as it is kept in a {@code SharedTokenStore}, so that clients in other
+ * processes can use it without requesting it from CAM again.
+ */
+public final class SharedToken {
+    private final String authToken;
+    private final long expires;
+
+    private SharedToken(Builder builder) {
+        this.authToken = builder.authToken;
+        this.expires = builder.expires;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String authToken() {
+        return authToken;
+    }
+
+    /**
+     * Returns the expiration time of the token in milliseconds since the epoch. Clients compare it with their
+     * own clock, so the clocks of the processes sharing a store should be synchronized.
+     *
+     * @return the expiration time of the token
+     */
+    public long expires() {
+        return expires;
+    }
+
+    public static final class Builder {
+        private String authToken;
+        private long expires;
+
+        private Builder() {
+        }
+
+        public Builder authToken(String authToken) {
+            this.authToken = authToken;
+            return this;
+        }
+
+        public Builder expires(long expires) {
+            this.expires = expires;
+            return this;
+        }
+
+        public SharedToken build() {
+            return new SharedToken(this);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.tencentcloud.dbauth.model;
+
+/**
+ * TokenEvent describes a change of the authentication token cached for a region, instance and user.
+ */
+public final class TokenEvent {
+    private final Type type;
+    private final String region;
+    private final String instanceId;
+    private final String userName;
+    private final String authToken;
+    private final long expires;
+
+    private TokenEvent(Builder builder) {
+        this.type = builder.type;
+        this.region = builder.region;
+        this.instanceId = builder.instanceId;
+        this.userName = builder.userName;
+        this.authToken = builder.authToken;
+        this.expires = builder.expires;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public String region() {
+        return region;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public String userName() {
+        return userName;
+    }
+
+    /**
+     * Returns the authentication token the event refers to.
+     *
+     * @return the new token for {@link Type#ROTATED}, the expiring token for {@link Type#EXPIRING},
+     * or null for {@link Type#REVOKED}
+     */
+    public String authToken() {
+        return authToken;
+    }
+
+    /**
+     * Returns the expiration time of the token in milliseconds since the epoch, or 0 if there is no token.
+     *
+     * @return the expiration time of the token
+     */
+    public long expires() {
+        return expires;
+    }
+
+    /**
+     * The kind of token change.
+     */
+    public enum Type {
+        /**
+         * A new token replaced the previously cached one.
+         */
+        ROTATED,
+        /**
+         * The cached token will expire soon and has not been replaced yet.
+         */
+        EXPIRING,
+        /**
+         * The cached token was removed because CAM rejected the request, e.g. the authentication was closed.
+         */
+        REVOKED
+    }
+
+    public static final class Builder {
+        private Type type;
+        private String region;
+        private String instanceId;
+        private String userName;
+        private String authToken;
+        private long expires;
+
+        private Builder() {
+        }
+
+        public Builder type(Type type) {
+            this.type = type;
+            return this;
+        }
+
+        public Builder region(String region) {
+            this.region = region;
+            return this;
+        }
+
+        public Builder instanceId(String instanceId) {
+            this.instanceId = instanceId;
+            return this;
+        }
+
+        public Builder userName(String userName) {
+            this.userName = userName;
+            return this;
+        }
+
+        public Builder authToken(String authToken) {
+            this.authToken = authToken;
+            return this;
+        }
+
+        public Builder expires(long expires) {
+            this.expires = expires;
+            return this;
+        }
+
+        public TokenEvent build() {
+            return new TokenEvent(this);
+        }
+    }
+}
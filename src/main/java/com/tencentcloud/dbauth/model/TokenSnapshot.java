@@ -0,0 +1,256 @@
+package com.tencentcloud.dbauth.model;
+
+/**
+ * TokenSnapshot describes the cached authentication token and the refresh state of a region, instance and user
+ * at the time the snapshot was taken.
+ */
+public final class TokenSnapshot {
+    private final String region;
+    private final String instanceId;
+    private final String userName;
+    private final Source source;
+    private final long tokenAge;
+    private final long expires;
+    private final long nextRefresh;
+    private final int consecutiveFailures;
+    private final String lastErrorCode;
+    private final double accessRate;
+    private final long previousTokenExpires;
+    private final long rotationRetries;
+
+    private TokenSnapshot(Builder builder) {
+        this.region = builder.region;
+        this.instanceId = builder.instanceId;
+        this.userName = builder.userName;
+        this.source = builder.source;
+        this.tokenAge = builder.tokenAge;
+        this.expires = builder.expires;
+        this.nextRefresh = builder.nextRefresh;
+        this.consecutiveFailures = builder.consecutiveFailures;
+        this.lastErrorCode = builder.lastErrorCode;
+        this.accessRate = builder.accessRate;
+        this.previousTokenExpires = builder.previousTokenExpires;
+        this.rotationRetries = builder.rotationRetries;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String region() {
+        return region;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public String userName() {
+        return userName;
+    }
+
+    public Source source() {
+        return source;
+    }
+
+    /**
+     * Returns the time since the cached token was obtained.
+     *
+     * @return the age of the token in milliseconds, or -1 if there is no token
+     */
+    public long tokenAge() {
+        return tokenAge;
+    }
+
+    /**
+     * Returns the expiration time of the cached token in milliseconds since the epoch, or 0 if there is no token.
+     *
+     * @return the expiration time of the token
+     */
+    public long expires() {
+        return expires;
+    }
+
+    /**
+     * Returns the time of the next scheduled refresh in milliseconds since the epoch.
+     *
+     * @return the time of the next refresh, or 0 if no refresh is scheduled
+     */
+    public long nextRefresh() {
+        return nextRefresh;
+    }
+
+    /**
+     * Returns the number of failed CAM requests since the last successful one. Tokens taken from the shared
+     * store do not reset it.
+     *
+     * @return the number of consecutive failures
+     */
+    public int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Returns the error code of the last failed token request.
+     *
+     * @return the error code, or null if no request has failed
+     */
+    public String lastErrorCode() {
+        return lastErrorCode;
+    }
+
+    /**
+     * Returns the number of token requests per second, smoothed over the recent refresh intervals.
+     * Frequently requested keys are refreshed first when refresh capacity is limited.
+     *
+     * @return the access rate in requests per second
+     */
+    public double accessRate() {
+        return accessRate;
+    }
+
+    /**
+     * Returns the end of the overlap window of the token replaced by the last rotation.
+     *
+     * @return the time in milliseconds since the epoch until which the previous token is kept,
+     * or 0 if there is none
+     */
+    public long previousTokenExpires() {
+        return previousTokenExpires;
+    }
+
+    /**
+     * Returns the number of authentications retried with the other token of a rotation overlap.
+     *
+     * @return the number of rotation retries
+     */
+    public long rotationRetries() {
+        return rotationRetries;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenSnapshot{region=" + region
+                + ", instanceId=" + instanceId
+                + ", userName=" + userName
+                + ", source=" + source
+                + ", tokenAge=" + tokenAge
+                + ", expires=" + expires
+                + ", nextRefresh=" + nextRefresh
+                + ", consecutiveFailures=" + consecutiveFailures
+                + ", lastErrorCode=" + lastErrorCode
+                + ", accessRate=" + accessRate
+                + ", previousTokenExpires=" + previousTokenExpires
+                + ", rotationRetries=" + rotationRetries
+                + "}";
+    }
+
+    /**
+     * The origin of the cached token.
+     */
+    public enum Source {
+        /**
+         * The token was requested from CAM and has not expired.
+         */
+        CAM,
+        /**
+         * The token was taken from the {@code SharedTokenStore}, where a client of another process stored it,
+         * and has not expired.
+         */
+        SHARED_STORE,
+        /**
+         * The token was read from the local password file because CAM could not be reached.
+         */
+        FALLBACK,
+        /**
+         * The token has expired and is only kept because refreshing it failed.
+         */
+        STALE,
+        /**
+         * No token is cached, e.g. because the first request failed or the token was revoked.
+         */
+        NONE
+    }
+
+    public static final class Builder {
+        private String region;
+        private String instanceId;
+        private String userName;
+        private Source source;
+        private long tokenAge = -1;
+        private long expires;
+        private long nextRefresh;
+        private int consecutiveFailures;
+        private String lastErrorCode;
+        private double accessRate;
+        private long previousTokenExpires;
+        private long rotationRetries;
+
+        private Builder() {
+        }
+
+        public Builder region(String region) {
+            this.region = region;
+            return this;
+        }
+
+        public Builder instanceId(String instanceId) {
+            this.instanceId = instanceId;
+            return this;
+        }
+
+        public Builder userName(String userName) {
+            this.userName = userName;
+            return this;
+        }
+
+        public Builder source(Source source) {
+            this.source = source;
+            return this;
+        }
+
+        public Builder tokenAge(long tokenAge) {
+            this.tokenAge = tokenAge;
+            return this;
+        }
+
+        public Builder expires(long expires) {
+            this.expires = expires;
+            return this;
+        }
+
+        public Builder nextRefresh(long nextRefresh) {
+            this.nextRefresh = nextRefresh;
+            return this;
+        }
+
+        public Builder consecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+            return this;
+        }
+
+        public Builder lastErrorCode(String lastErrorCode) {
+            this.lastErrorCode = lastErrorCode;
+            return this;
+        }
+
+        public Builder accessRate(double accessRate) {
+            this.accessRate = accessRate;
+            return this;
+        }
+
+        public Builder previousTokenExpires(long previousTokenExpires) {
+            this.previousTokenExpires = previousTokenExpires;
+            return this;
+        }
+
+        public Builder rotationRetries(long rotationRetries) {
+            this.rotationRetries = rotationRetries;
+            return this;
+        }
+
+        public TokenSnapshot build() {
+            return new TokenSnapshot(this);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloud.dbauth.internal.Constants;
+import com.tencentcloud.dbauth.internal.FakeCamTransport;
+import com.tencentcloud.dbauth.internal.SignerContext;
+import com.tencentcloud.dbauth.model.AuthenticationTokenPair;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.SharedToken;
+import com.tencentcloud.dbauth.model.TokenSnapshot;
+import com.tencentcloudapi.common.Credential;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.common.profile.ClientProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DBAuthClientTest {
+
+    private static GenerateAuthenticationTokenRequest newRequest() throws TencentCloudSDKException {
+        return GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("cdb-123456")
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey"))
+                .build();
+    }
+
+    private static DBAuthConfig newConfig(long tokenUpdateInterval) {
+        return DBAuthConfig.builder()
+                .fromEnvironment()
+                .fromSystemProperties()
+                .tokenUpdateInterval(tokenUpdateInterval)
+                .build();
+    }
+
+    @Test
+    public void testClientsDoNotShareTokens() throws Exception {
+        FakeCamTransport transport1 = new FakeCamTransport();
+        transport1.setPassword("password1");
+        FakeCamTransport transport2 = new FakeCamTransport();
+        transport2.setPassword("password2");
+
+        try (DBAuthClient client1 = new DBAuthClient(new SignerContext(newConfig(60000), transport1));
+             DBAuthClient client2 = new DBAuthClient(new SignerContext(newConfig(60000), transport2))) {
+            Assert.assertEquals("password1", client1.generateAuthenticationToken(newRequest()));
+            Assert.assertEquals("password1", client1.generateAuthenticationToken(newRequest()));
+            Assert.assertEquals("password2", client2.generateAuthenticationToken(newRequest()));
+            Assert.assertEquals(1, transport1.getCalls());
+            Assert.assertEquals(1, transport2.getCalls());
+        }
+    }
+
+    @Test
+    public void testCacheHitDoesNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long threadId = Thread.currentThread().getId();
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), new FakeCamTransport()))) {
+            GenerateAuthenticationTokenRequest request = newRequest();
+            // An equal request built by the caller for each call finds the same cached state
+            client.generateAuthenticationToken(newRequest());
+            for (int i = 0; i < 10000; i++) {
+                client.generateAuthenticationToken(request);
+                client.generateAuthenticationToken(request, 1, TimeUnit.SECONDS);
+            }
+
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100000; i++) {
+                client.generateAuthenticationToken(request);
+                client.generateAuthenticationToken(request, 1, TimeUnit.SECONDS);
+            }
+            long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+            // Allow for the measurement itself, but not for a single object per call
+            Assert.assertTrue("allocated " + allocated + " bytes", allocated < 100000);
+        }
+    }
+
+    @Test
+    public void testCacheHitWithNewClientProfileDoesNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        long threadId = Thread.currentThread().getId();
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), new FakeCamTransport()))) {
+            // Requests with their own client profile, as callers build them following the README
+            GenerateAuthenticationTokenRequest[] requests = new GenerateAuthenticationTokenRequest[2];
+            for (int i = 0; i < requests.length; i++) {
+                requests[i] = GenerateAuthenticationTokenRequest.builder()
+                        .region("ap-guangzhou")
+                        .instanceId("cdb-123456")
+                        .userName("test")
+                        .credential(new Credential("secretId", "secretKey"))
+                        .clientProfile(new ClientProfile())
+                        .build();
+            }
+            for (int i = 0; i < 10000; i++) {
+                client.generateAuthenticationToken(requests[i & 1]);
+            }
+
+            long before = allocations.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 100000; i++) {
+                client.generateAuthenticationToken(requests[i & 1]);
+            }
+            long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+            Assert.assertTrue("allocated " + allocated + " bytes", allocated < 100000);
+        }
+    }
+
+    @Test
+    public void testCloseStopsRefreshes() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(100), transport));
+        client.generateAuthenticationToken(newRequest());
+
+        Assert.assertTrue(client.close(1, TimeUnit.SECONDS));
+        int calls = transport.getCalls();
+        Thread.sleep(300);
+
+        Assert.assertTrue(client.isClosed());
+        Assert.assertEquals(calls, transport.getCalls());
+        Assert.assertTrue(client.getTokenSnapshots().isEmpty());
+        try {
+            client.generateAuthenticationToken(newRequest());
+            Assert.fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCloseDrainsRunningRequests() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        CountDownLatch release = new CountDownLatch(1);
+        transport.setRelease(release);
+        DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), transport));
+
+        Thread caller = new Thread(() -> {
+            try {
+                client.generateAuthenticationToken(newRequest(), 5, TimeUnit.SECONDS);
+            } catch (TencentCloudSDKException e) {
+                // the result does not matter
+            }
+        });
+        caller.start();
+        while (transport.getCalls() == 0) {
+            Thread.sleep(10);
+        }
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        }).start();
+
+        Assert.assertTrue(client.close(5, TimeUnit.SECONDS));
+        caller.join(5000);
+    }
+
+    @Test
+    public void testCloseInterruptsRequestsAfterTimeout() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        transport.setRelease(new CountDownLatch(1));
+        DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), transport));
+
+        Thread caller = new Thread(() -> {
+            try {
+                client.generateAuthenticationToken(newRequest(), 5, TimeUnit.SECONDS);
+            } catch (TencentCloudSDKException e) {
+                // the result does not matter
+            }
+        });
+        caller.start();
+        while (transport.getCalls() == 0) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertFalse(client.close(100, TimeUnit.MILLISECONDS));
+        caller.join(5000);
+        Assert.assertFalse(caller.isAlive());
+    }
+
+    @Test
+    public void testTokenPairWithinOverlapWindow() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        // Expire every token at once, so each call requests a new one
+        transport.setLifetimeSeconds(0);
+        DBAuthConfig config = DBAuthConfig.builder().fromEnvironment().fromSystemProperties()
+                .tokenOverlapWindow(60000).build();
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(config, transport))) {
+            transport.setPassword("password1");
+            Assert.assertNull(client.generateAuthenticationTokenPair(newRequest()).previous());
+
+            transport.setPassword("password2");
+            Thread.sleep(5);
+            AuthenticationTokenPair pair = client.generateAuthenticationTokenPair(newRequest());
+            Assert.assertEquals("password2", pair.current());
+            Assert.assertEquals("password1", pair.previous());
+            Assert.assertTrue(pair.previousExpires() > System.currentTimeMillis());
+
+            Assert.assertEquals("password1", client.getRotationRetryToken(newRequest(), "password2"));
+            Assert.assertEquals("password2", client.getRotationRetryToken(newRequest(), "password1"));
+            Assert.assertNull(client.getRotationRetryToken(newRequest(), "password0"));
+            Assert.assertEquals(2, client.getTokenSnapshots().get(0).rotationRetries());
+        }
+    }
+
+    @Test
+    public void testTokenPairWithoutOverlapWindow() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        transport.setLifetimeSeconds(0);
+        DBAuthConfig config = DBAuthConfig.builder().fromEnvironment().fromSystemProperties()
+                .tokenOverlapWindow(0).build();
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(config, transport))) {
+            transport.setPassword("password1");
+            client.generateAuthenticationToken(newRequest());
+            transport.setPassword("password2");
+            Thread.sleep(5);
+
+            AuthenticationTokenPair pair = client.generateAuthenticationTokenPair(newRequest());
+            Assert.assertEquals("password2", pair.current());
+            Assert.assertNull(pair.previous());
+            Assert.assertNull(client.getRotationRetryToken(newRequest(), "password2"));
+        }
+    }
+
+    @Test
+    public void testClientsShareTokensThroughStore() throws Exception {
+        SharedTokenStore store = new InMemorySharedTokenStore();
+        FakeCamTransport transport1 = new FakeCamTransport();
+        FakeCamTransport transport2 = new FakeCamTransport();
+        transport2.setPassword("password2");
+
+        try (DBAuthClient client1 = new DBAuthClient(new SignerContext(newConfig(60000), transport1, store));
+             DBAuthClient client2 = new DBAuthClient(new SignerContext(newConfig(60000), transport2, store))) {
+            Assert.assertEquals("password", client1.generateAuthenticationToken(newRequest()));
+            // client1 holds the refresh lease, so client2 takes the token from the store
+            Assert.assertEquals("password", client2.generateAuthenticationToken(newRequest()));
+            Assert.assertEquals(1, transport1.getCalls());
+            Assert.assertEquals(0, transport2.getCalls());
+            Assert.assertEquals(TokenSnapshot.Source.CAM, client1.getTokenSnapshots().get(0).source());
+            Assert.assertEquals(TokenSnapshot.Source.SHARED_STORE, client2.getTokenSnapshots().get(0).source());
+        }
+    }
+
+    @Test
+    public void testFailedRefreshReleasesLease() throws Exception {
+        SharedTokenStore store = new InMemorySharedTokenStore();
+        FakeCamTransport transport1 = new FakeCamTransport();
+        transport1.setFailure(new TencentCloudSDKException("CAM unavailable", "", "InternalError"));
+        FakeCamTransport transport2 = new FakeCamTransport();
+
+        try (DBAuthClient client1 = new DBAuthClient(new SignerContext(newConfig(60000), transport1, store));
+             DBAuthClient client2 = new DBAuthClient(new SignerContext(newConfig(60000), transport2, store))) {
+            try {
+                client1.generateAuthenticationToken(newRequest());
+                Assert.fail("Expected TencentCloudSDKException");
+            } catch (TencentCloudSDKException e) {
+                // expected
+            }
+            Assert.assertEquals("password", client2.generateAuthenticationToken(newRequest()));
+            Assert.assertEquals(1, transport2.getCalls());
+        }
+    }
+
+    @Test
+    public void testStoreTokenIsNotCountedAsCamSuccess() throws Exception {
+        SharedTokenStore store = new InMemorySharedTokenStore();
+        FakeCamTransport transport1 = new FakeCamTransport();
+        FakeCamTransport transport2 = new FakeCamTransport();
+        transport2.setFailure(new TencentCloudSDKException("CAM unavailable", "", "InternalError"));
+
+        try (DBAuthClient client1 = new DBAuthClient(new SignerContext(newConfig(60000), transport1, store));
+             DBAuthClient client2 = new DBAuthClient(new SignerContext(newConfig(60000), transport2, store))) {
+            try {
+                client2.generateAuthenticationToken(newRequest());
+                Assert.fail("Expected TencentCloudSDKException");
+            } catch (TencentCloudSDKException e) {
+                // expected
+            }
+            client1.generateAuthenticationToken(newRequest());
+
+            Assert.assertEquals("password", client2.generateAuthenticationToken(newRequest()));
+            TokenSnapshot snapshot = client2.getTokenSnapshots().get(0);
+            Assert.assertEquals(TokenSnapshot.Source.SHARED_STORE, snapshot.source());
+            Assert.assertEquals(1, snapshot.consecutiveFailures());
+            Assert.assertEquals("InternalError", snapshot.lastErrorCode());
+        }
+    }
+
+    @Test
+    public void testFailingStoreFallsBackToCam() throws Exception {
+        SharedTokenStore store = new SharedTokenStore() {
+            @Override
+            public SharedToken get(String key) {
+                throw new IllegalStateException("store unavailable");
+            }
+
+            @Override
+            public void put(String key, SharedToken token) {
+                throw new IllegalStateException("store unavailable");
+            }
+
+            @Override
+            public boolean tryAcquireRefreshLease(String key, String owner, long leaseDuration) {
+                throw new IllegalStateException("store unavailable");
+            }
+
+            @Override
+            public void releaseRefreshLease(String key, String owner) {
+                throw new IllegalStateException("store unavailable");
+            }
+        };
+        FakeCamTransport transport = new FakeCamTransport();
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), transport, store))) {
+            Assert.assertEquals("password", client.generateAuthenticationToken(newRequest()));
+            Assert.assertEquals(1, transport.getCalls());
+        }
+    }
+
+    @Test
+    public void testTimeoutReturnsExpiredCachedToken() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        transport.setLifetimeSeconds(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), transport))) {
+            Assert.assertEquals("password", client.generateAuthenticationToken(newRequest()));
+            // CAM hangs from now on, also for the refresh of the token
+            transport.setRelease(release);
+            Thread.sleep(1500);
+
+            long start = System.nanoTime();
+            String token = client.generateAuthenticationToken(newRequest(), 300, TimeUnit.MILLISECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertEquals("password", token);
+            Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testTimeoutReturnsFallbackToken() throws Exception {
+        GenerateAuthenticationTokenRequest request = GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("cdb-fallback")
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey"))
+                .build();
+        Path passwordFile = Paths.get(System.getProperty("user.dir"), Constants.INPUT_PATH_DIR,
+                "ap-guangzhou" + Constants.DELIMITER + "cdb-fallback" + Constants.DELIMITER + "test.pwd");
+        Files.createDirectories(passwordFile.getParent());
+        Files.write(passwordFile, Collections.singletonList("fallback"), StandardCharsets.UTF_8);
+        FakeCamTransport transport = new FakeCamTransport();
+        CountDownLatch release = new CountDownLatch(1);
+        transport.setRelease(release);
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), transport))) {
+            long start = System.nanoTime();
+            String token = client.generateAuthenticationToken(request, 300, TimeUnit.MILLISECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Assert.assertEquals("fallback", token);
+            Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        } finally {
+            release.countDown();
+            Files.deleteIfExists(passwordFile);
+        }
+    }
+
+    @Test
+    public void testTimeoutWithoutTokenThrows() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        CountDownLatch release = new CountDownLatch(1);
+        transport.setRelease(release);
+
+        try (DBAuthClient client = new DBAuthClient(new SignerContext(newConfig(60000), transport))) {
+            long start = System.nanoTime();
+            try {
+                client.generateAuthenticationToken(newRequest(), 300, TimeUnit.MILLISECONDS);
+                Assert.fail("expected TokenTimeoutException");
+            } catch (TokenTimeoutException e) {
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1000);
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tencentcloud.dbauth;
+
+import com.tencentcloud.dbauth.model.SharedToken;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InMemorySharedTokenStoreTest {
+
+    @Test
+    public void testPutAndGet() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore();
+        Assert.assertNull(store.get("key"));
+
+        store.put("key", SharedToken.builder().authToken("token").expires(1000).build());
+
+        Assert.assertEquals("token", store.get("key").authToken());
+        Assert.assertEquals(1000, store.get("key").expires());
+    }
+
+    @Test
+    public void testRefreshLeaseHasOneOwner() {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore();
+
+        Assert.assertTrue(store.tryAcquireRefreshLease("key", "pod-1", 60000));
+        Assert.assertFalse(store.tryAcquireRefreshLease("key", "pod-2", 60000));
+        Assert.assertTrue(store.tryAcquireRefreshLease("key", "pod-1", 60000));
+        Assert.assertTrue(store.tryAcquireRefreshLease("other", "pod-2", 60000));
+
+        // Only the owner can release the lease
+        store.releaseRefreshLease("key", "pod-2");
+        Assert.assertFalse(store.tryAcquireRefreshLease("key", "pod-2", 60000));
+        store.releaseRefreshLease("key", "pod-1");
+        Assert.assertTrue(store.tryAcquireRefreshLease("key", "pod-2", 60000));
+    }
+
+    @Test
+    public void testRefreshLeaseExpires() throws InterruptedException {
+        InMemorySharedTokenStore store = new InMemorySharedTokenStore();
+
+        Assert.assertTrue(store.tryAcquireRefreshLease("key", "pod-1", 50));
+        Thread.sleep(100);
+
+        Assert.assertTrue(store.tryAcquireRefreshLease("key", "pod-2", 50));
+    }
+}
@@ -0,0 +1,131 @@
+package com.tencentcloud.dbauth;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tencentcloud.dbauth.internal.FakeCamTransport;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloudapi.common.Credential;
+import com.tencentcloudapi.common.profile.ClientProfile;
+import com.tencentcloudapi.common.profile.HttpProfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * StartupBenchmark measures the cold-start cost of the SDK in a fresh JVM: the time to load and initialize
+ * {@link DBAuthentication}, the latency of the first token, which includes loading the CAM client and parsing
+ * the token, and the latency of a cached token.
+ * <p>
+ * CAM is replaced by a local HTTP server that answers like BuildDataFlowAuthToken, and the tokens are requested
+ * with the built-in lightweight client, so the benchmark needs neither credentials nor network access. The first
+ * token of a second key is measured as well: it takes the same HTTP round trip in a warm JVM, so the difference
+ * to the first token is the cold-start cost of the SDK.
+ * </p>
+ * <p>
+ * Run it once per JVM, e.g. after {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.tencentcloud.dbauth.StartupBenchmark
+ * </pre>
+ * </p>
+ */
+public final class StartupBenchmark {
+    private static final String REGION = "ap-guangzhou";
+    private static final String INSTANCE_ID = "cdb-123456";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        HttpServer server = startCamStub();
+        try {
+            long start = System.nanoTime();
+            Class.forName(DBAuthentication.class.getName());
+            long classInitNanos = System.nanoTime() - start;
+            int threadsAfterInit = Thread.activeCount();
+
+            DBAuthentication.configure(DBAuthConfig.builder().camClient(DBAuthConfig.CamClientType.LITE).build());
+            int port = server.getAddress().getPort();
+
+            start = System.nanoTime();
+            DBAuthentication.generateAuthenticationToken(newRequest("user1", port));
+            long firstTokenNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            DBAuthentication.generateAuthenticationToken(newRequest("user1", port));
+            long cachedTokenNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            DBAuthentication.generateAuthenticationToken(newRequest("user2", port));
+            long warmFirstTokenNanos = System.nanoTime() - start;
+
+            System.out.printf("JVM start to first token: %d ms%n", System.currentTimeMillis() - jvmStartMillis);
+            System.out.printf("DBAuthentication class init: %.3f ms, live threads after init: %d%n",
+                    classInitNanos / 1e6, threadsAfterInit);
+            System.out.printf("First token latency: %.1f ms%n", firstTokenNanos / 1e6);
+            System.out.printf("First token of a second key: %.1f ms%n", warmFirstTokenNanos / 1e6);
+            System.out.printf("Cached token latency: %.3f ms%n", cachedTokenNanos / 1e6);
+        } finally {
+            server.stop(0);
+        }
+        System.exit(0);
+    }
+
+    private static GenerateAuthenticationTokenRequest newRequest(String userName, int port) throws Exception {
+        HttpProfile httpProfile = new HttpProfile();
+        httpProfile.setEndpoint("127.0.0.1:" + port);
+        httpProfile.setProtocol(HttpProfile.REQ_HTTP);
+        ClientProfile clientProfile = new ClientProfile();
+        clientProfile.setHttpProfile(httpProfile);
+        return GenerateAuthenticationTokenRequest.builder()
+                .region(REGION)
+                .instanceId(INSTANCE_ID)
+                .userName(userName)
+                .credential(new Credential("secretId", "secretKey"))
+                .clientProfile(clientProfile)
+                .build();
+    }
+
+    /**
+     * Starts a local server that answers BuildDataFlowAuthToken with a token encrypted like CAM does.
+     */
+    private static HttpServer startCamStub() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String body = read(exchange.getRequestBody());
+            String userName = body.contains("\"user2\"") ? "user2" : "user1";
+            long now = System.currentTimeMillis();
+            String token;
+            try {
+                token = FakeCamTransport.encrypt(INSTANCE_ID, REGION, userName, "password");
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            byte[] response = ("{\"Response\":{\"Credentials\":{\"Token\":\"" + token + "\",\"CurrentTime\":" + now
+                    + ",\"NextRotationTime\":" + (now + 3600 * 1000) + "},\"RequestId\":\"req\"}}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,156 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.AuthTokenInfoOuterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Base64;
+import java.util.function.Function;
+
+public class AuthTokenInfoDecoderTest {
+
+    private static AuthTokenInfoOuterClass.AuthTokenInfo newTokenInfo(String password) {
+        return AuthTokenInfoOuterClass.AuthTokenInfo.newBuilder()
+                .setAppId(1250000000L)
+                .setUin(100000000001L)
+                .setOwnerUin(100000000000L)
+                .setReqId("reqId")
+                .setInstanceId("cdb-123456")
+                .setRegion("ap-guangzhou")
+                .setUsername("test")
+                .setPassword(password)
+                .setCreateTime(1700000000L)
+                .setExtraInfo("extra")
+                .setTokenType(1)
+                .setRandNum(42)
+                .build();
+    }
+
+    @Test
+    public void testReadPasswordAtOffset() throws Exception {
+        byte[] message = newTokenInfo("p@ssw0rd-\u5bc6\u7801").toByteArray();
+        byte[] buffer = new byte[message.length + 4];
+        System.arraycopy(message, 0, buffer, 4, message.length);
+
+        Assert.assertEquals("p@ssw0rd-\u5bc6\u7801", AuthTokenInfoDecoder.readPassword(buffer, 4, message.length));
+    }
+
+    @Test
+    public void testReadPasswordWithoutPassword() throws Exception {
+        byte[] message = newTokenInfo("").toByteArray();
+
+        Assert.assertEquals("", AuthTokenInfoDecoder.readPassword(message, 0, message.length));
+    }
+
+    @Test
+    public void testReadPasswordWithTruncatedMessage() {
+        byte[] message = newTokenInfo("password").toByteArray();
+        try {
+            AuthTokenInfoDecoder.readPassword(message, 0, message.length - 20);
+            Assert.fail("expected an exception for a truncated message");
+        } catch (Exception e) {
+            Assert.assertTrue(e.getMessage().startsWith("Failed to parse AuthTokenInfo"));
+        }
+    }
+
+    @Test
+    public void testParseAuthTokenPasswordMatchesProtobuf() throws Exception {
+        String instanceId = "cdb-123456";
+        String region = "ap-guangzhou";
+        String userName = "test";
+        String token = encrypt(instanceId, region, userName, newTokenInfo("password").toByteArray());
+
+        Assert.assertEquals("password", AuthTokenParser.parseAuthTokenPassword(instanceId, region, userName, token));
+        Assert.assertEquals(AuthTokenParser.parseAuthToken(instanceId, region, userName, token).getPassword(),
+                AuthTokenParser.parseAuthTokenPassword(instanceId, region, userName, token));
+    }
+
+    @Test
+    public void testParseAuthTokenPasswordWithoutProtobuf() throws Exception {
+        String instanceId = "cdb-123456";
+        String region = "ap-guangzhou";
+        String userName = "test";
+        String token = encrypt(instanceId, region, userName, newTokenInfo("password").toByteArray());
+
+        try (URLClassLoader loader = new WithoutProtobufClassLoader(getClass().getClassLoader(),
+                AuthTokenParser.class.getProtectionDomain().getCodeSource().getLocation(),
+                PasswordParser.class.getProtectionDomain().getCodeSource().getLocation())) {
+            // Call the parser directly instead of through reflection, which would resolve every method signature
+            @SuppressWarnings("unchecked")
+            Function<String[], String> parser = (Function<String[], String>)
+                    loader.loadClass(PasswordParser.class.getName()).getDeclaredConstructor().newInstance();
+
+            Assert.assertEquals("password", parser.apply(new String[]{instanceId, region, userName, token}));
+        }
+    }
+
+    /**
+     * Parses the password of a token, loaded by the {@link WithoutProtobufClassLoader}.
+     */
+    public static final class PasswordParser implements Function<String[], String> {
+
+        @Override
+        public String apply(String[] args) {
+            try {
+                return AuthTokenParser.parseAuthTokenPassword(args[0], args[1], args[2], args[3]);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Loads the classes of the library itself from the given location and hides the protobuf runtime,
+     * like the class path of an application that does not depend on protobuf-java.
+     */
+    private static final class WithoutProtobufClassLoader extends URLClassLoader {
+
+        WithoutProtobufClassLoader(ClassLoader parent, URL... locations) {
+            super(locations, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith("com.google.protobuf.")) {
+                throw new ClassNotFoundException(name);
+            }
+            if (!name.startsWith("com.tencentcloud.dbauth.")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    c = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Builds an encrypted token the way CAM does: a 4-byte header followed by the message, encrypted with
+     * AES-CBC and prefixed with the SHA-256 of the plain bytes.
+     */
+    private static String encrypt(String instanceId, String region, String userName, byte[] message)
+            throws Exception {
+        byte[] plain = new byte[message.length + 4];
+        System.arraycopy(message, 0, plain, 4, message.length);
+
+        String seedKey = AuthTokenParser.sha256(
+                (instanceId + Constants.DELIMITER + region + Constants.DELIMITER + userName).getBytes());
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(seedKey.substring(0, 32).getBytes(), "AES"),
+                new IvParameterSpec(seedKey.substring(33, 49).getBytes()));
+        byte[] encrypted = cipher.doFinal(plain);
+
+        return AuthTokenParser.sha256(plain) + Base64.getUrlEncoder().withoutPadding().encodeToString(encrypted);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tencentcloud.dbauth.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BulkheadTest {
+
+    @Test
+    public void testWaitingTasksRunByPriority() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("ap-guangzhou", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Occupy the only worker, so the following tasks have to wait
+        bulkhead.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        bulkhead.execute(newTask("reporting", order, done), 0.01);
+        bulkhead.execute(newTask("oltp", order, done), 10);
+        bulkhead.execute(newTask("batch-1", order, done), 1);
+        bulkhead.execute(newTask("batch-2", order, done), 1);
+        bulkhead.execute(newTask("unprioritized", order, done));
+        Assert.assertEquals(5, bulkhead.getQueueDepth());
+
+        release.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("oltp", "batch-1", "batch-2", "reporting", "unprioritized"), order);
+    }
+
+    @Test
+    public void testShutdownDropsWaitingTasks() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("ap-guangzhou", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        bulkhead.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add("running");
+        });
+        bulkhead.execute(newTask("waiting", order, new CountDownLatch(1)), 1);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        bulkhead.shutdown();
+        release.countDown();
+
+        Assert.assertTrue(bulkhead.awaitTermination(Deadline.after(5, TimeUnit.SECONDS)));
+        Assert.assertEquals(Arrays.asList("running"), order);
+    }
+
+    private static Runnable newTask(String name, List<String> order, CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+}
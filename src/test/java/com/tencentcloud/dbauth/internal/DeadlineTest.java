@@ -0,0 +1,69 @@
+package com.tencentcloud.dbauth.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class DeadlineTest {
+
+    @Test
+    public void testNone() {
+        Deadline deadline = Deadline.none();
+        Assert.assertFalse(deadline.isBounded());
+        Assert.assertFalse(deadline.isExpired());
+        Assert.assertEquals(Long.MAX_VALUE, deadline.remainingMillis());
+        Assert.assertEquals(30, deadline.capSeconds(30));
+        Assert.assertEquals(0, deadline.capMillis(0));
+    }
+
+    @Test
+    public void testCapTimeouts() {
+        Deadline deadline = Deadline.after(2, TimeUnit.SECONDS);
+        Assert.assertTrue(deadline.isBounded());
+        Assert.assertFalse(deadline.isExpired());
+        Assert.assertEquals(2, deadline.capSeconds(30));
+        Assert.assertEquals(2, deadline.capSeconds(0));
+        Assert.assertEquals(1, deadline.capSeconds(1));
+        Assert.assertTrue(deadline.capMillis(30000) <= 2000);
+        Assert.assertEquals(500, deadline.capMillis(500));
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        Deadline deadline = Deadline.after(10, TimeUnit.MILLISECONDS);
+        Thread.sleep(20);
+        Assert.assertTrue(deadline.isExpired());
+        Assert.assertEquals(0, deadline.remainingMillis());
+        Assert.assertEquals(1, deadline.capSeconds(30));
+        Assert.assertEquals(1, deadline.capMillis(30000));
+    }
+
+    @Test
+    public void testIsBefore() {
+        Deadline shorter = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline longer = Deadline.after(10, TimeUnit.SECONDS);
+        Assert.assertTrue(shorter.isBefore(longer));
+        Assert.assertFalse(longer.isBefore(shorter));
+        Assert.assertFalse(shorter.isBefore(shorter));
+        Assert.assertTrue(longer.isBefore(Deadline.none()));
+        Assert.assertFalse(Deadline.none().isBefore(shorter));
+        Assert.assertFalse(Deadline.none().isBefore(Deadline.none()));
+    }
+
+    @Test
+    public void testExtendCopy() {
+        Deadline deadline = Deadline.after(1, TimeUnit.SECONDS);
+        Deadline shared = deadline.copy();
+
+        shared.extendTo(Deadline.after(100, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(shared.remainingMillis() <= 1000);
+        shared.extendTo(Deadline.after(10, TimeUnit.SECONDS));
+        Assert.assertTrue(shared.remainingMillis() > 1000);
+        // The original deadline is not affected
+        Assert.assertTrue(deadline.remainingMillis() <= 1000);
+        shared.extendTo(Deadline.none());
+        Assert.assertTrue(shared.isBounded());
+        Assert.assertFalse(Deadline.none().copy().isBounded());
+    }
+}
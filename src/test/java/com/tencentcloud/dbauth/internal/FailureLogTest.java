@@ -0,0 +1,68 @@
+package com.tencentcloud.dbauth.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FailureLogTest {
+
+    @Test
+    public void testSuppressesRepeatedFailuresWithinInterval() {
+        FailureLog failureLog = new FailureLog(60000);
+
+        Assert.assertEquals(0, failureLog.recordFailure("key", "InternalError", 1000));
+        Assert.assertEquals(-1, failureLog.recordFailure("key", "InternalError", 6000));
+        Assert.assertEquals(-1, failureLog.recordFailure("key", "InternalError", 11000));
+        // Other keys are logged independently
+        Assert.assertEquals(0, failureLog.recordFailure("other", "InternalError", 11000));
+
+        Assert.assertEquals(2, failureLog.recordFailure("key", "InternalError", 61000));
+        Assert.assertEquals(-1, failureLog.recordFailure("key", "InternalError", 66000));
+    }
+
+    @Test
+    public void testLogsNewErrorCodeRightAway() {
+        FailureLog failureLog = new FailureLog(60000);
+
+        Assert.assertEquals(0, failureLog.recordFailure("key", "InternalError", 1000));
+        Assert.assertEquals(-1, failureLog.recordFailure("key", "InternalError", 6000));
+        Assert.assertEquals(0, failureLog.recordFailure("key", "AuthFailure", 11000));
+        Assert.assertEquals(0, failureLog.recordFailure("key", null, 16000));
+    }
+
+    @Test
+    public void testSuppressesAlternatingErrorCodes() {
+        FailureLog failureLog = new FailureLog(60000);
+
+        // A key failing alternately with two codes logs each code once per interval
+        Assert.assertEquals(0, failureLog.recordFailure("key", "ClientSideError.Timeout", 1000));
+        Assert.assertEquals(0, failureLog.recordFailure("key", "InternalError", 2000));
+        for (long now = 6000; now < 60000; now += 5000) {
+            Assert.assertEquals(-1, failureLog.recordFailure("key", "ClientSideError.Timeout", now));
+            Assert.assertEquals(-1, failureLog.recordFailure("key", "InternalError", now + 1000));
+        }
+
+        Assert.assertEquals(11, failureLog.recordFailure("key", "ClientSideError.Timeout", 61000));
+        Assert.assertEquals(11, failureLog.recordFailure("key", "InternalError", 62000));
+    }
+
+    @Test
+    public void testSuccessResetsKey() {
+        FailureLog failureLog = new FailureLog(60000);
+
+        Assert.assertEquals(0, failureLog.recordSuccess("key", 1000));
+        failureLog.recordFailure("key", "InternalError", 1000);
+        failureLog.recordFailure("key", "InternalError", 6000);
+
+        Assert.assertEquals(2, failureLog.recordSuccess("key", 11000));
+        Assert.assertEquals(0, failureLog.recordSuccess("key", 16000));
+        Assert.assertEquals(0, failureLog.recordFailure("key", "InternalError", 21000));
+    }
+
+    @Test
+    public void testZeroIntervalLogsEveryFailure() {
+        FailureLog failureLog = new FailureLog(0);
+
+        Assert.assertEquals(0, failureLog.recordFailure("key", "InternalError", 1000));
+        Assert.assertEquals(0, failureLog.recordFailure("key", "InternalError", 1000));
+    }
+}
@@ -0,0 +1,105 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.AuthTokenInfoOuterClass;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A CAM transport that returns tokens encrypted like CAM does, or fails with a configured error.
+ */
+public class FakeCamTransport implements CamTransport {
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile String password = "password";
+    private volatile long lifetimeSeconds = 3600;
+    private volatile TencentCloudSDKException failure;
+    private volatile CountDownLatch release;
+    private volatile Deadline lastDeadline;
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public void setLifetimeSeconds(long lifetimeSeconds) {
+        this.lifetimeSeconds = lifetimeSeconds;
+    }
+
+    public void setFailure(TencentCloudSDKException failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * Makes the following calls block until the latch is counted down.
+     */
+    public void setRelease(CountDownLatch release) {
+        this.release = release;
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    public Deadline getLastDeadline() {
+        return lastDeadline;
+    }
+
+    @Override
+    public AuthTokenResponse buildDataFlowAuthToken(GenerateAuthenticationTokenRequest request, Deadline deadline)
+            throws TencentCloudSDKException {
+        lastDeadline = deadline;
+        calls.incrementAndGet();
+        CountDownLatch latch = release;
+        if (latch != null) {
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new TencentCloudSDKException("Interrupted");
+            }
+        }
+        TencentCloudSDKException e = failure;
+        if (e != null) {
+            throw e;
+        }
+        // CAM reports its current time and the rotation time in milliseconds
+        long now = System.currentTimeMillis();
+        try {
+            return new AuthTokenResponse("reqId",
+                    encrypt(request.instanceId(), request.region(), request.userName(), password),
+                    now, now + lifetimeSeconds * 1000);
+        } catch (Exception ex) {
+            throw new TencentCloudSDKException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Builds an encrypted token the way CAM does: a 4-byte header followed by the message, encrypted with
+     * AES-CBC and prefixed with the SHA-256 of the plain bytes.
+     */
+    public static String encrypt(String instanceId, String region, String userName, String password) throws Exception {
+        byte[] message = AuthTokenInfoOuterClass.AuthTokenInfo.newBuilder()
+                .setInstanceId(instanceId)
+                .setRegion(region)
+                .setUsername(userName)
+                .setPassword(password)
+                .build()
+                .toByteArray();
+        byte[] plain = new byte[message.length + 4];
+        System.arraycopy(message, 0, plain, 4, message.length);
+
+        String seedKey = AuthTokenParser.sha256(
+                (instanceId + Constants.DELIMITER + region + Constants.DELIMITER + userName).getBytes());
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(seedKey.substring(0, 32).getBytes(), "AES"),
+                new IvParameterSpec(seedKey.substring(33, 49).getBytes()));
+        byte[] encrypted = cipher.doFinal(plain);
+
+        return AuthTokenParser.sha256(plain) + Base64.getUrlEncoder().withoutPadding().encodeToString(encrypted);
+    }
+}
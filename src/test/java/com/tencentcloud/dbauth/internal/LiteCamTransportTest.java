@@ -0,0 +1,189 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloudapi.common.Credential;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.common.profile.ClientProfile;
+import com.tencentcloudapi.common.profile.HttpProfile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class LiteCamTransportTest {
+    private HttpServer server;
+    // The requests the server received, checked on the test thread, where failed assertions fail the test
+    private final List<CapturedRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile String responseBody;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(new CapturedRequest(
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    exchange.getRequestHeaders().getFirst("Host"),
+                    exchange.getRequestHeaders().getFirst("X-TC-Action"),
+                    exchange.getRequestHeaders().getFirst("X-TC-Region"),
+                    exchange.getRequestHeaders().getFirst("X-TC-Timestamp"),
+                    read(exchange.getRequestBody())));
+            byte[] response = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testBuildDataFlowAuthToken() throws Exception {
+        // CAM reports its times in milliseconds, like FakeCamTransport
+        responseBody = "{\"Response\":{\"Credentials\":{\"Token\":\"encToken\",\"CurrentTime\":1700000000000,"
+                + "\"NextRotationTime\":1700003600000},\"RequestId\":\"req-1\"}}";
+        LiteCamTransport transport = new LiteCamTransport(DBAuthConfig.load());
+
+        AuthTokenResponse response = transport.buildDataFlowAuthToken(newRequest(), Deadline.none());
+        transport.buildDataFlowAuthToken(newRequest(), Deadline.none());
+
+        Assert.assertEquals("req-1", response.getRequestId());
+        Assert.assertEquals("encToken", response.getToken());
+        Assert.assertEquals(1700000000000L, response.getCurrentTime());
+        Assert.assertEquals(1700003600000L, response.getNextRotationTime());
+        Assert.assertEquals(2, requests.size());
+        CapturedRequest request = requests.get(0);
+        Assert.assertEquals("BuildDataFlowAuthToken", request.action);
+        Assert.assertEquals("ap-guangzhou", request.region);
+        Assert.assertEquals("{\"ResourceId\":\"instanceId\",\"ResourceRegion\":\"ap-guangzhou\","
+                + "\"ResourceAccount\":\"test\"}", request.body);
+        // The signature covers the headers and body the server received
+        Assert.assertEquals(new Tc3Signer().authorization(new Credential("secretId", "secretKey"), "cam",
+                        request.host, request.action, Long.parseLong(request.timestamp),
+                        request.body.getBytes(StandardCharsets.UTF_8)),
+                request.authorization);
+    }
+
+    @Test
+    public void testBuildDataFlowAuthTokenWithError() {
+        responseBody = "{\"Response\":{\"Error\":{\"Code\":\"AuthFailure.SignatureFailure\","
+                + "\"Message\":\"signature mismatch\"},\"RequestId\":\"req-2\"}}";
+        try {
+            new LiteCamTransport(DBAuthConfig.load()).buildDataFlowAuthToken(newRequest(), Deadline.none());
+            Assert.fail("expected TencentCloudSDKException");
+        } catch (TencentCloudSDKException e) {
+            Assert.assertEquals("AuthFailure.SignatureFailure", e.getErrorCode());
+            Assert.assertEquals("req-2", e.getRequestId());
+            Assert.assertTrue(ErrorCodeMatcher.isUserNotificationRequired(e.getErrorCode()));
+        }
+    }
+
+    @Test
+    public void testParseResponseWithoutCredentials() throws TencentCloudSDKException {
+        AuthTokenResponse response = LiteCamTransport.parseResponse("{\"Response\":{\"RequestId\":\"req-3\"}}");
+        Assert.assertEquals("req-3", response.getRequestId());
+        Assert.assertNull(response.getToken());
+        Assert.assertNull(LiteCamTransport.parseResponse("{}"));
+    }
+
+    @Test
+    public void testAuthorizationMatchesReferenceSignature() throws Exception {
+        // Computed independently from the published TC3-HMAC-SHA256 steps
+        String payload = "{\"ResourceId\":\"cdb-123456\",\"ResourceRegion\":\"ap-guangzhou\","
+                + "\"ResourceAccount\":\"test\"}";
+        String authorization = new Tc3Signer().authorization(
+                new Credential("AKIDEXAMPLE", "Gu5t9xGARNpq86cd98joQYCN3EXAMPLE"), "cam",
+                "cam.tencentcloudapi.com", "BuildDataFlowAuthToken", 1551113065L,
+                payload.getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals("TC3-HMAC-SHA256 Credential=AKIDEXAMPLE/2019-02-25/cam/tc3_request, "
+                + "SignedHeaders=content-type;host;x-tc-action, "
+                + "Signature=9ca08bdb238103257668913c2c62b1dd3b81963708630ea0943e7950ad23a264", authorization);
+    }
+
+    @Test
+    public void testCredentialScopeUsesUtcDate() throws Exception {
+        Credential credential = new Credential("secretId", "secretKey");
+        byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+        Tc3Signer signer = new Tc3Signer();
+
+        // 2019-02-25T23:59:59Z and 2019-02-26T00:00:00Z
+        Assert.assertTrue(signer.authorization(credential, "cam", "host", "Action", 1551139199L, payload)
+                .contains("/2019-02-25/cam/"));
+        Assert.assertTrue(signer.authorization(credential, "cam", "host", "Action", 1551139200L, payload)
+                .contains("/2019-02-26/cam/"));
+    }
+
+    @Test
+    public void testSigningKeyIsCachedPerDay() throws Exception {
+        Tc3Signer signer = new Tc3Signer();
+        Credential credential = new Credential("secretId", "secretKey");
+
+        byte[] key = signer.signingKey(credential, "cam", "2024-01-01");
+        Assert.assertSame(key, signer.signingKey(credential, "cam", "2024-01-01"));
+        Assert.assertNotSame(key, signer.signingKey(credential, "cam", "2024-01-02"));
+        Assert.assertNotSame(key, signer.signingKey(new Credential("secretId", "rotatedKey"), "cam", "2024-01-02"));
+    }
+
+    private GenerateAuthenticationTokenRequest newRequest() throws TencentCloudSDKException {
+        HttpProfile httpProfile = new HttpProfile();
+        httpProfile.setEndpoint("127.0.0.1:" + server.getAddress().getPort());
+        httpProfile.setProtocol(HttpProfile.REQ_HTTP);
+        ClientProfile clientProfile = new ClientProfile();
+        clientProfile.setHttpProfile(httpProfile);
+        return GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("instanceId")
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey"))
+                .clientProfile(clientProfile)
+                .build();
+    }
+
+    /**
+     * A request received by the server.
+     */
+    private static final class CapturedRequest {
+        private final String authorization;
+        private final String host;
+        private final String action;
+        private final String region;
+        private final String timestamp;
+        private final String body;
+
+        CapturedRequest(String authorization, String host, String action, String region, String timestamp,
+                        String body) {
+            this.authorization = authorization;
+            this.host = host;
+            this.action = action;
+            this.region = region;
+            this.timestamp = timestamp;
+            this.body = body;
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.tencentcloud.dbauth.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testUnlimited() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(0);
+        Assert.assertFalse(rateLimiter.isEnabled());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(rateLimiter.acquire(false, Deadline.after(0, TimeUnit.MILLISECONDS)));
+        }
+    }
+
+    @Test
+    public void testLimitsRate() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(20);
+        long start = System.nanoTime();
+        // The first 20 permits are the initial burst, the next 10 take about half a second
+        for (int i = 0; i < 30; i++) {
+            Assert.assertTrue(rateLimiter.acquire(true, Deadline.none()));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue("acquired too fast: " + elapsedMillis + " ms", elapsedMillis >= 400);
+    }
+
+    @Test
+    public void testDeadline() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(1);
+        Assert.assertTrue(rateLimiter.acquire(true, Deadline.none()));
+        Assert.assertFalse(rateLimiter.acquire(true, Deadline.after(50, TimeUnit.MILLISECONDS)));
+    }
+
+    @Test
+    public void testForegroundGoesFirst() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(5);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(rateLimiter.acquire(true, Deadline.none()));
+        }
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        Thread background = new Thread(() -> {
+            try {
+                rateLimiter.acquire(false, Deadline.none());
+                order.add("background");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        background.start();
+        Thread.sleep(20);
+        Assert.assertTrue(rateLimiter.acquire(true, Deadline.none()));
+        order.add("foreground");
+        background.join(2000);
+
+        Assert.assertEquals(2, order.size());
+        Assert.assertEquals("foreground", order.get(0));
+    }
+
+    @Test
+    public void testBackgroundAtLowRate() throws InterruptedException {
+        for (double qps : new double[]{0.5, 1, 1.2}) {
+            RateLimiter rateLimiter = new RateLimiter(qps);
+            Assert.assertTrue("qps " + qps, rateLimiter.acquire(false, Deadline.after(3, TimeUnit.SECONDS)));
+        }
+
+        // After the bucket is drained, a background refresh gets the next permit at 1 qps
+        RateLimiter rateLimiter = new RateLimiter(1);
+        Assert.assertTrue(rateLimiter.acquire(true, Deadline.none()));
+        Assert.assertTrue(rateLimiter.acquire(false, Deadline.after(3, TimeUnit.SECONDS)));
+    }
+}
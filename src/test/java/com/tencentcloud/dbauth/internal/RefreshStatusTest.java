@@ -0,0 +1,35 @@
+package com.tencentcloud.dbauth.internal;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RefreshStatusTest {
+
+    @Test
+    public void testSampleAccessRate() {
+        long start = System.currentTimeMillis();
+        RefreshStatus status = new RefreshStatus("ap-guangzhou", "cdb-123456", "test");
+        for (int i = 0; i < 20; i++) {
+            status.recordAccess();
+        }
+
+        double rate = status.sampleAccessRate(start + 2000);
+        Assert.assertEquals(10, rate, 0.1);
+        Assert.assertEquals(rate, status.getAccessRate(), 0);
+
+        // No requests in the next interval halve the smoothed rate
+        Assert.assertEquals(rate / 2, status.sampleAccessRate(start + 4000), 0.01);
+    }
+
+    @Test
+    public void testConsecutiveFailures() {
+        RefreshStatus status = new RefreshStatus("ap-guangzhou", "cdb-123456", "test");
+        status.recordFailure("InternalError");
+        status.recordFailure("RequestLimitExceeded");
+        Assert.assertEquals(2, status.getConsecutiveFailures());
+        Assert.assertEquals("RequestLimitExceeded", status.getLastErrorCode());
+
+        status.recordSuccess();
+        Assert.assertEquals(0, status.getConsecutiveFailures());
+    }
+}
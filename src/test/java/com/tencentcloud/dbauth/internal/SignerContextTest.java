@@ -0,0 +1,137 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.TokenSnapshot;
+import com.tencentcloudapi.cam.v20190116.CamErrorCode;
+import com.tencentcloudapi.common.Credential;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.common.profile.ClientProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SignerContextTest {
+    // Loaded from the system properties, so the tests also run with tuned configurations
+    private static final DBAuthConfig CONFIG = DBAuthConfig.load();
+
+    private static GenerateAuthenticationTokenRequest newRequest(String instanceId) throws TencentCloudSDKException {
+        return GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId(instanceId)
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey"))
+                .build();
+    }
+
+    @Test
+    public void testSnapshotAfterSuccessfulRefresh() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        SignerContext context = new SignerContext(CONFIG, transport);
+        long before = System.currentTimeMillis();
+
+        new Signer(context, newRequest("cdb-2")).buildAuthToken();
+        new Signer(context, newRequest("cdb-1")).buildAuthToken();
+
+        List<TokenSnapshot> snapshots = context.getTokenSnapshots();
+        Assert.assertEquals(2, snapshots.size());
+        Assert.assertEquals("cdb-1", snapshots.get(0).instanceId());
+        TokenSnapshot snapshot = snapshots.get(1);
+        Assert.assertEquals("ap-guangzhou", snapshot.region());
+        Assert.assertEquals("cdb-2", snapshot.instanceId());
+        Assert.assertEquals("test", snapshot.userName());
+        Assert.assertEquals(TokenSnapshot.Source.CAM, snapshot.source());
+        Assert.assertTrue(snapshot.tokenAge() >= 0);
+        Assert.assertTrue(snapshot.expires() > before);
+        Assert.assertTrue(snapshot.nextRefresh() > before);
+        Assert.assertEquals(0, snapshot.consecutiveFailures());
+        Assert.assertNull(snapshot.lastErrorCode());
+    }
+
+    @Test
+    public void testSnapshotCountsConsecutiveFailures() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        transport.setFailure(new TencentCloudSDKException("CAM unavailable", "", CamErrorCode.INTERNALERROR.getValue()));
+        SignerContext context = new SignerContext(CONFIG, transport);
+        GenerateAuthenticationTokenRequest request = newRequest("cdb-1");
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                new Signer(context, request).buildAuthToken();
+                Assert.fail("Expected TencentCloudSDKException");
+            } catch (TencentCloudSDKException e) {
+                Assert.assertEquals(CamErrorCode.INTERNALERROR.getValue(), e.getErrorCode());
+            }
+        }
+
+        TokenSnapshot snapshot = context.getTokenSnapshots().get(0);
+        Assert.assertEquals(TokenSnapshot.Source.NONE, snapshot.source());
+        Assert.assertEquals(-1, snapshot.tokenAge());
+        Assert.assertEquals(0, snapshot.nextRefresh());
+        Assert.assertEquals(2, snapshot.consecutiveFailures());
+        Assert.assertEquals(CamErrorCode.INTERNALERROR.getValue(), snapshot.lastErrorCode());
+
+        transport.setFailure(null);
+        new Signer(context, request).buildAuthToken();
+
+        snapshot = context.getTokenSnapshots().get(0);
+        Assert.assertEquals(TokenSnapshot.Source.CAM, snapshot.source());
+        Assert.assertEquals(0, snapshot.consecutiveFailures());
+    }
+
+    @Test
+    public void testSnapshotReportsExpiredTokenAsStale() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        transport.setLifetimeSeconds(0);
+        SignerContext context = new SignerContext(CONFIG, transport);
+
+        new Signer(context, newRequest("cdb-1")).buildAuthToken();
+        Thread.sleep(10);
+
+        Assert.assertEquals(TokenSnapshot.Source.STALE, context.getTokenSnapshots().get(0).source());
+    }
+
+    @Test
+    public void testSignerIsSharedByEqualRequests() throws Exception {
+        SignerContext context = new SignerContext(CONFIG, new FakeCamTransport());
+        Signer signer = context.getSigner(newRequest("cdb-1"));
+
+        Assert.assertSame(signer, context.getSigner(newRequest("cdb-1")));
+        Assert.assertNotSame(signer, context.getSigner(newRequest("cdb-2")));
+
+        // A rotated secret key for the same key replaces the signer of the old request
+        GenerateAuthenticationTokenRequest rotated = GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("cdb-1")
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey2"))
+                .build();
+        Signer rotatedSigner = context.getSigner(rotated);
+        Assert.assertNotSame(signer, rotatedSigner);
+        Assert.assertEquals(signer.getAuthKey(), rotatedSigner.getAuthKey());
+        Assert.assertNotSame(signer, context.getSigner(newRequest("cdb-1")));
+    }
+
+    @Test
+    public void testSignerIsSharedAcrossClientProfiles() throws Exception {
+        SignerContext context = new SignerContext(CONFIG, new FakeCamTransport());
+        Signer signer = context.getSigner(newRequest("cdb-1"));
+
+        // Callers following the README build a new client profile for every request
+        for (int i = 0; i < 3; i++) {
+            ClientProfile clientProfile = new ClientProfile();
+            GenerateAuthenticationTokenRequest request = GenerateAuthenticationTokenRequest.builder()
+                    .region("ap-guangzhou")
+                    .instanceId("cdb-1")
+                    .userName("test")
+                    .credential(new Credential("secretId", "secretKey"))
+                    .clientProfile(clientProfile)
+                    .build();
+
+            Assert.assertSame(signer, context.getSigner(request));
+            // The following CAM requests use the latest profile
+            Assert.assertSame(clientProfile, signer.getRequest().clientProfile());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.GenerateAuthenticationTokenRequest;
+import com.tencentcloud.dbauth.model.TokenEvent;
+import com.tencentcloudapi.common.Credential;
+import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class SignerTest {
+
+    private static GenerateAuthenticationTokenRequest newRequest() throws TencentCloudSDKException {
+        return GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("cdb-123456")
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey"))
+                .build();
+    }
+
+    private static void awaitCalls(FakeCamTransport transport, int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (transport.getCalls() < calls) {
+            Assert.assertTrue("timed out waiting for " + calls + " CAM calls", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testTokenEventsOfRefreshCycle() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        // Every token expires within the threshold, so each one is announced as expiring
+        transport.setLifetimeSeconds(30);
+        DBAuthConfig config = DBAuthConfig.builder().fromEnvironment().fromSystemProperties()
+                .tokenUpdateInterval(50)
+                .tokenExpiringThreshold(60000)
+                .build();
+        SignerContext context = new SignerContext(config, transport);
+        List<TokenEvent> events = new CopyOnWriteArrayList<>();
+        context.getEventPublisher().addListener(events::add);
+
+        try {
+            new Signer(context, newRequest()).buildAuthToken();
+            // Refreshes returning the same token announce it only once
+            awaitCalls(transport, 5);
+
+            transport.setPassword("password2");
+            awaitCalls(transport, transport.getCalls() + 5);
+
+            transport.setFailure(new TencentCloudSDKException("Signature expired", "", "AuthFailure.SignatureExpire"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.isEmpty() || events.get(events.size() - 1).type() != TokenEvent.Type.REVOKED) {
+                Assert.assertTrue("timed out waiting for REVOKED", System.nanoTime() < deadline);
+                Thread.sleep(10);
+            }
+        } finally {
+            context.close(1, TimeUnit.SECONDS);
+        }
+
+        Assert.assertEquals(4, events.size());
+        Assert.assertEquals(TokenEvent.Type.EXPIRING, events.get(0).type());
+        Assert.assertEquals("password", events.get(0).authToken());
+        Assert.assertEquals(TokenEvent.Type.ROTATED, events.get(1).type());
+        Assert.assertEquals("password2", events.get(1).authToken());
+        Assert.assertEquals(TokenEvent.Type.EXPIRING, events.get(2).type());
+        Assert.assertEquals("password2", events.get(2).authToken());
+        Assert.assertEquals(TokenEvent.Type.REVOKED, events.get(3).type());
+        Assert.assertNull(events.get(3).authToken());
+        Assert.assertEquals("cdb-123456", events.get(3).instanceId());
+    }
+
+    @Test
+    public void testClosedContextLeavesNoRequestInFlight() throws Exception {
+        SignerContext context = new SignerContext(DBAuthConfig.defaults(), new FakeCamTransport());
+        context.close(1, TimeUnit.SECONDS);
+        Signer signer = new Signer(context, newRequest());
+
+        try {
+            signer.buildAuthToken(Deadline.after(1, TimeUnit.SECONDS));
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(context.getInFlightRequests().isEmpty());
+        }
+    }
+
+    @Test
+    public void testRejectedRequestLeavesNoRequestInFlight() throws Exception {
+        SignerContext context = new SignerContext(DBAuthConfig.defaults(), new FakeCamTransport());
+        Signer signer = new Signer(context, newRequest());
+        signer.buildAuthToken(Deadline.after(5, TimeUnit.SECONDS));
+        context.getFetchExecutor().shutdown();
+
+        try {
+            signer.buildAuthToken(Deadline.after(1, TimeUnit.SECONDS));
+            Assert.fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            Assert.assertTrue(context.getInFlightRequests().isEmpty());
+        } finally {
+            context.close(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCallersWithEqualTimeoutsShareOneRequest() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        CountDownLatch release = new CountDownLatch(1);
+        transport.setRelease(release);
+        SignerContext context = new SignerContext(DBAuthConfig.defaults(), transport);
+        Signer signer = new Signer(context, newRequest());
+        ExecutorService callers = Executors.newCachedThreadPool();
+
+        try {
+            List<Future<?>> calls = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                // Every caller arrives later than the one before, so its deadline is later as well
+                calls.add(callers.submit(() -> {
+                    signer.buildAuthToken(Deadline.after(5, TimeUnit.SECONDS));
+                    return null;
+                }));
+                Thread.sleep(20);
+            }
+            awaitCalls(transport, 1);
+            release.countDown();
+
+            for (Future<?> call : calls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+            Assert.assertEquals(1, transport.getCalls());
+            Assert.assertTrue(context.getInFlightRequests().isEmpty());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            context.close(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testJoiningCallerExtendsDeadlineOfRequest() throws Exception {
+        FakeCamTransport transport = new FakeCamTransport();
+        CountDownLatch release = new CountDownLatch(1);
+        transport.setRelease(release);
+        SignerContext context = new SignerContext(DBAuthConfig.defaults(), transport);
+        Signer signer = new Signer(context, newRequest());
+        ExecutorService callers = Executors.newCachedThreadPool();
+
+        try {
+            Future<?> shortCaller = callers.submit(() -> {
+                signer.buildAuthToken(Deadline.after(2, TimeUnit.SECONDS));
+                return null;
+            });
+            awaitCalls(transport, 1);
+            Assert.assertTrue(transport.getLastDeadline().remainingMillis() <= 2000);
+
+            Future<?> longCaller = callers.submit(() -> {
+                signer.buildAuthToken(Deadline.after(10, TimeUnit.SECONDS));
+                return null;
+            });
+            // The request now times out and retries within the deadline of the longer caller
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (transport.getLastDeadline().remainingMillis() <= 2000) {
+                Assert.assertTrue("timed out waiting for the deadline to be extended", System.nanoTime() < deadline);
+                Thread.sleep(10);
+            }
+
+            release.countDown();
+            shortCaller.get(5, TimeUnit.SECONDS);
+            longCaller.get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(1, transport.getCalls());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            context.close(1, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.tencentcloud.dbauth.internal;
 
+import com.tencentcloud.dbauth.model.DBAuthConfig;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class TimerManagerTest {
+    // Loaded from the system properties, so the tests also run with tuned configurations
+    private static final DBAuthConfig CONFIG = DBAuthConfig.load();
 
     @Test
     public void testTimerManager() {
         AtomicInteger counter = new AtomicInteger(0);
-        TimerManager timerManager = new TimerManager();
+        TimerManager timerManager = new TimerManager(CONFIG);
         timerManager.saveTimer("key", 100, () -> {
             counter.incrementAndGet();
             timerManager.saveTimer("key", 100, () -> {
@@ -26,4 +31,60 @@ public class TimerManagerTest {
 
         Assert.assertEquals(2, counter.get());
     }
+
+    @Test
+    public void testStalledPartitionDoesNotDelayOtherPartitions() throws InterruptedException {
+        TimerManager timerManager = new TimerManager(CONFIG);
+        CountDownLatch release = new CountDownLatch(1);
+        int concurrency = CONFIG.bulkheadConcurrency();
+        CountDownLatch stalledStarted = new CountDownLatch(concurrency);
+        try {
+            // Occupy every worker of the stalled region and queue more refreshes behind them
+            for (int i = 0; i < concurrency + 2; i++) {
+                timerManager.saveTimer("stalled-" + i, "ap-stalled", 10, () -> {
+                    stalledStarted.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Assert.assertTrue(stalledStarted.await(1, TimeUnit.SECONDS));
+
+            CountDownLatch healthyDone = new CountDownLatch(1);
+            long start = System.nanoTime();
+            timerManager.saveTimer("healthy", "ap-healthy", 100, healthyDone::countDown);
+
+            Assert.assertTrue(healthyDone.await(1, TimeUnit.SECONDS));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue("healthy region was delayed by " + elapsedMillis + " ms", elapsedMillis < 500);
+            Assert.assertEquals(2, timerManager.getQueueDepths().get("ap-stalled").intValue());
+            Assert.assertEquals(0, timerManager.getQueueDepths().get("ap-healthy").intValue());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testSchedulerStartsLazily() throws InterruptedException {
+        int threadsBefore = countSchedulerThreads();
+        TimerManager timerManager = new TimerManager(CONFIG);
+        Assert.assertEquals(threadsBefore, countSchedulerThreads());
+
+        CountDownLatch done = new CountDownLatch(1);
+        timerManager.saveTimer("key", 10, done::countDown);
+        Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(countSchedulerThreads() > threadsBefore);
+    }
+
+    private static int countSchedulerThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("ScheduledThread-")) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -0,0 +1,65 @@
+package com.tencentcloud.dbauth.internal;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.tencentcloud.dbauth.SharedTokenStore;
+import com.tencentcloud.dbauth.model.DBAuthConfig;
+import com.tencentcloud.dbauth.model.SharedToken;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+public class TokenCacheTest {
+
+    private static final SharedTokenStore FAILING_STORE = new SharedTokenStore() {
+        @Override
+        public SharedToken get(String key) {
+            throw new IllegalStateException("store unavailable");
+        }
+
+        @Override
+        public void put(String key, SharedToken token) {
+            throw new IllegalStateException("store unavailable");
+        }
+
+        @Override
+        public boolean tryAcquireRefreshLease(String key, String owner, long leaseDuration) {
+            throw new IllegalStateException("store unavailable");
+        }
+
+        @Override
+        public void releaseRefreshLease(String key, String owner) {
+            throw new IllegalStateException("store unavailable");
+        }
+    };
+
+    @Test
+    public void testSharedStoreFailuresAreRateLimited() {
+        Logger logger = (Logger) LoggerFactory.getLogger(TokenCache.class);
+        Level level = logger.getLevel();
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(Level.ERROR);
+        try {
+            DBAuthConfig config = DBAuthConfig.defaults();
+            TokenCache tokenCache = new TokenCache(config, FAILING_STORE, new FailureLog(60000));
+
+            for (int i = 0; i < 10; i++) {
+                Assert.assertNull(tokenCache.getSharedAuthToken("key1"));
+                Assert.assertTrue(tokenCache.tryAcquireRefreshLease("key1"));
+                tokenCache.releaseRefreshLease("key1");
+            }
+            Assert.assertNull(tokenCache.getSharedAuthToken("key2"));
+
+            // One line per key while the store keeps failing the same way
+            Assert.assertEquals(2, appender.list.size());
+            Assert.assertNotNull(appender.list.get(0).getThrowableProxy());
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(level);
+        }
+    }
+}
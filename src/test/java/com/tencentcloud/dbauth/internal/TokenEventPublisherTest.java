@@ -0,0 +1,69 @@
+package com.tencentcloud.dbauth.internal;
+
+import com.tencentcloud.dbauth.TokenListener;
+import com.tencentcloud.dbauth.model.TokenEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TokenEventPublisherTest {
+
+    @Test
+    public void testPublishToAllListeners() {
+        TokenEventPublisher publisher = new TokenEventPublisher();
+        List<TokenEvent> received = new ArrayList<>();
+        publisher.addListener(event -> {
+            throw new IllegalStateException("listener failure");
+        });
+        publisher.addListener(received::add);
+
+        TokenEvent event = TokenEvent.builder()
+                .type(TokenEvent.Type.ROTATED)
+                .region("ap-guangzhou")
+                .instanceId("instanceId")
+                .userName("test")
+                .authToken("token")
+                .expires(1000)
+                .build();
+        publisher.publish(event);
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(TokenEvent.Type.ROTATED, received.get(0).type());
+        Assert.assertEquals("token", received.get(0).authToken());
+    }
+
+    @Test
+    public void testRemoveListener() {
+        TokenEventPublisher publisher = new TokenEventPublisher();
+        List<TokenEvent> received = new ArrayList<>();
+        TokenListener listener = received::add;
+        publisher.addListener(listener);
+        Assert.assertTrue(publisher.hasListeners());
+
+        publisher.removeListener(listener);
+        publisher.publish(TokenEvent.builder().type(TokenEvent.Type.REVOKED).build());
+
+        Assert.assertFalse(publisher.hasListeners());
+        Assert.assertEquals(0, received.size());
+    }
+
+    @Test
+    public void testMarkExpiringOncePerToken() {
+        TokenEventPublisher publisher = new TokenEventPublisher();
+        long expires = System.currentTimeMillis();
+        Token token = new Token("token", expires);
+
+        Assert.assertTrue(publisher.markExpiring("key", token));
+        Assert.assertFalse(publisher.markExpiring("key", token));
+        // A refresh returns a new instance of the same token
+        Assert.assertFalse(publisher.markExpiring("key", new Token("token", expires + 10)));
+        // The same password with a new expiry is a new token
+        Assert.assertTrue(publisher.markExpiring("key", new Token("token", expires + 60000)));
+        Assert.assertTrue(publisher.markExpiring("key", new Token("token2", System.currentTimeMillis())));
+
+        publisher.clearExpiring("key");
+        Assert.assertTrue(publisher.markExpiring("key", token));
+    }
+}
@@ -0,0 +1,84 @@
+package com.tencentcloud.dbauth.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Properties;
+
+public class DBAuthConfigTest {
+
+    @Test
+    public void testDefaults() {
+        DBAuthConfig config = DBAuthConfig.defaults();
+
+        Assert.assertEquals(DBAuthConfig.DEFAULT_TOKEN_UPDATE_INTERVAL, config.tokenUpdateInterval());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_TOKEN_OVERLAP_WINDOW, config.tokenOverlapWindow());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_FAILURE_LOG_INTERVAL, config.failureLogInterval());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_MAX_RETRIES, config.maxRetries());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_HTTP_TIMEOUT, config.httpTimeout());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_SCHEDULER_POOL_SIZE, config.schedulerPoolSize());
+        // At least the one refresh thread per CPU of the pool the bulkheads replaced
+        Assert.assertTrue(config.bulkheadConcurrency() >= Runtime.getRuntime().availableProcessors());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_MAX_PASSWORD_SIZE, config.maxPasswordSize());
+        Assert.assertEquals(DBAuthConfig.DEFAULT_MAX_DELAY, config.maxDelay());
+        Assert.assertEquals(DBAuthConfig.CamClientType.SDK, config.camClient());
+    }
+
+    @Test
+    public void testBuilder() {
+        DBAuthConfig config = DBAuthConfig.builder()
+                .tokenUpdateInterval(10000)
+                .maxRetries(1)
+                .httpTimeout(2)
+                .bulkheadConcurrency(4)
+                .camQps(20)
+                .camClient(DBAuthConfig.CamClientType.LITE)
+                .build();
+
+        Assert.assertEquals(10000, config.tokenUpdateInterval());
+        Assert.assertEquals(1, config.maxRetries());
+        Assert.assertEquals(2, config.httpTimeout());
+        Assert.assertEquals(4, config.bulkheadConcurrency());
+        Assert.assertEquals(20, config.camQps(), 0);
+        Assert.assertEquals(DBAuthConfig.CamClientType.LITE, config.camClient());
+    }
+
+    @Test
+    public void testFromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(DBAuthConfig.PROPERTY_PREFIX + "tokenUpdateInterval", "10000");
+        properties.setProperty(DBAuthConfig.PROPERTY_PREFIX + "maxPasswordSize", " 512 ");
+        properties.setProperty(DBAuthConfig.PROPERTY_PREFIX + "camQps", "12.5");
+        properties.setProperty(DBAuthConfig.PROPERTY_PREFIX + "camClient", "lite");
+
+        DBAuthConfig config = DBAuthConfig.builder().maxRetries(5).fromProperties(properties).build();
+
+        Assert.assertEquals(10000, config.tokenUpdateInterval());
+        Assert.assertEquals(512, config.maxPasswordSize());
+        Assert.assertEquals(12.5, config.camQps(), 0);
+        Assert.assertEquals(DBAuthConfig.CamClientType.LITE, config.camClient());
+        Assert.assertEquals(5, config.maxRetries());
+    }
+
+    @Test
+    public void testFromPropertiesWithInvalidValue() {
+        Properties properties = new Properties();
+        properties.setProperty(DBAuthConfig.PROPERTY_PREFIX + "maxRetries", "three");
+        try {
+            DBAuthConfig.builder().fromProperties(properties);
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("maxRetries"));
+        }
+    }
+
+    @Test
+    public void testBuilderWithInvalidValue() {
+        try {
+            DBAuthConfig.builder().bulkheadConcurrency(0).build();
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("bulkheadConcurrency"));
+        }
+    }
+}
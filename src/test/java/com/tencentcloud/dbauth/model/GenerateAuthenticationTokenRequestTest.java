@@ -3,6 +3,7 @@ package com.tencentcloud.dbauth.model;
 import com.tencentcloudapi.cam.v20190116.CamErrorCode;
 import com.tencentcloudapi.common.Credential;
 import com.tencentcloudapi.common.exception.TencentCloudSDKException;
+import com.tencentcloudapi.common.profile.ClientProfile;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -27,6 +28,38 @@ public class GenerateAuthenticationTokenRequestTest {
         Assert.assertEquals(credential, tokenRequest.credential());
     }
 
+    @Test
+    public void testEquals() throws TencentCloudSDKException {
+        GenerateAuthenticationTokenRequest request = newRequest("test", new Credential("secretId", "secretKey"));
+        GenerateAuthenticationTokenRequest equal = newRequest("test", new Credential("secretId", "secretKey"));
+
+        Assert.assertEquals(request, equal);
+        Assert.assertEquals(request.hashCode(), equal.hashCode());
+        Assert.assertFalse(request.equals(newRequest("test2", new Credential("secretId", "secretKey"))));
+        Assert.assertFalse(request.equals(newRequest("test", new Credential("secretId", "secretKey2"))));
+
+        // The client profile is not compared
+        GenerateAuthenticationTokenRequest withProfile = GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("instanceId")
+                .userName("test")
+                .credential(new Credential("secretId", "secretKey"))
+                .clientProfile(new ClientProfile())
+                .build();
+        Assert.assertEquals(request, withProfile);
+        Assert.assertEquals(request.hashCode(), withProfile.hashCode());
+    }
+
+    private static GenerateAuthenticationTokenRequest newRequest(String userName, Credential credential)
+            throws TencentCloudSDKException {
+        return GenerateAuthenticationTokenRequest.builder()
+                .region("ap-guangzhou")
+                .instanceId("instanceId")
+                .userName(userName)
+                .credential(credential)
+                .build();
+    }
+
     @Test
     public void testBuilderWithInvalidRegion() {
         String region = "";